@@ -1,6 +1,9 @@
 package ru.practicum.shareit.booking;
 
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
@@ -10,6 +13,7 @@ import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Component;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 
+import ru.practicum.shareit.booking.dto.BookingApprovalDto;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
 import ru.practicum.shareit.client.BaseClient;
 
@@ -27,18 +31,50 @@ public class BookingClient extends BaseClient {
         );
     }
 
-    public ResponseEntity<Object> getAllBookerBookings(Long userId, State state) {
-        Map<String, Object> parameters = Map.of("state", state.name());
-        return get("?state={state}", userId, parameters);
+    public ResponseEntity<Object> getAllBookerBookings(Long userId, State state, Integer from, Integer size, Long after) {
+        return getBookings("", userId, state, from, size, after);
     }
 
-    public ResponseEntity<Object> getAllOwnerBookings(Long userId, State state) {
-        Map<String, Object> parameters = Map.of("state", state.name());
-        return get("/owner?state={state}", userId, parameters);
+    public ResponseEntity<Object> getAllOwnerBookings(Long userId, State state, Integer from, Integer size, Long after) {
+        return getBookings("/owner", userId, state, from, size, after);
     }
 
-    public ResponseEntity<Object> createBooking(Long userId, BookingCreateDto requestDto) {
-        return post("", userId, requestDto);
+    private ResponseEntity<Object> getBookings(String prefix, Long userId, State state, Integer from, Integer size,
+                                               Long after) {
+        Map<String, Object> parameters = new HashMap<>(Map.of("state", state.name(), "from", from, "size", size));
+        String path = prefix + "?state={state}&from={from}&size={size}";
+        if (after != null) {
+            parameters.put("after", after);
+            path += "&after={after}";
+        }
+        return get(path, userId, parameters);
+    }
+
+    public ResponseEntity<Object> countBookerBookings(Long userId) {
+        return get("/counts", userId);
+    }
+
+    public ResponseEntity<Object> countOwnerBookings(Long userId) {
+        return get("/owner/counts", userId);
+    }
+
+    public ResponseEntity<Object> createBooking(Long userId, BookingCreateDto requestDto, String idempotencyKey) {
+        return post("", userId, requestDto, idempotencyKey);
+    }
+
+    public ResponseEntity<Object> holdBooking(Long userId, BookingCreateDto requestDto, Integer minutes) {
+        if (minutes == null) {
+            return post("/holds", userId, requestDto);
+        }
+        return post("/holds?minutes={minutes}", userId, Map.of("minutes", minutes), requestDto);
+    }
+
+    public ResponseEntity<Object> releaseHold(Long userId, UUID holdId) {
+        return delete("/holds/" + holdId, userId);
+    }
+
+    public ResponseEntity<Object> createBookings(Long userId, List<BookingCreateDto> requestDtos) {
+        return post("/batch", userId, requestDtos);
     }
 
     public ResponseEntity<Object> getBookingById(Long userId, Long bookingId) {
@@ -49,4 +85,8 @@ public class BookingClient extends BaseClient {
         Map<String, Object> parameters = Map.of("approved", approved);
         return patch("/" + bookingId + "?approved={approved}", userId, parameters, null);
     }
+
+    public ResponseEntity<Object> approveAllByOwner(Long userId, BookingApprovalDto approvalDto) {
+        return patch("/approve", userId, approvalDto);
+    }
 }
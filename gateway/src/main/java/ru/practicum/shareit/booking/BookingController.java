@@ -5,11 +5,22 @@ import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import ru.practicum.shareit.booking.dto.BookingApprovalDto;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.client.IdempotencyStore;
 import ru.practicum.shareit.exception.WrongBookingDatesException;
 
+import java.util.List;
+import java.util.UUID;
+
 
 @RestController
 @RequestMapping(path = "/bookings")
@@ -18,36 +29,95 @@ import ru.practicum.shareit.exception.WrongBookingDatesException;
 @Validated
 public class BookingController {
     private final BookingClient bookingClient;
+    private final IdempotencyStore idempotencyStore;
 
     @GetMapping
     public ResponseEntity<Object> getAllBookerBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                                       @RequestParam(name = "state", defaultValue = "all") String stateParam) {
+                                                       @RequestParam(name = "state", defaultValue = "all") String stateParam,
+                                                       @RequestParam(defaultValue = "0") @PositiveOrZero Integer from,
+                                                       @RequestParam(defaultValue = "20") @Positive @Max(100) Integer size,
+                                                       @RequestParam(required = false) @Positive Long after) {
         State state = State.from(stateParam)
                 .orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
-        log.info("Get booking with state {}, bookerId={}", stateParam, userId);
-        return bookingClient.getAllBookerBookings(userId, state);
+        log.info("Get booking with state {}, bookerId={}, from={}, size={}, after={}", stateParam, userId, from, size, after);
+        return bookingClient.getAllBookerBookings(userId, state, from, size, after);
     }
 
     @GetMapping("/owner")
     public ResponseEntity<Object> getAllOwnerBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                                      @RequestParam(name = "state", defaultValue = "all") String stateParam) {
+                                                      @RequestParam(name = "state", defaultValue = "all") String stateParam,
+                                                      @RequestParam(defaultValue = "0") @PositiveOrZero Integer from,
+                                                      @RequestParam(defaultValue = "20") @Positive @Max(100) Integer size,
+                                                      @RequestParam(required = false) @Positive Long after) {
         State state = State.from(stateParam)
                 .orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
-        log.info("Get booking with state {}, ownerId={}", stateParam, userId);
-        return bookingClient.getAllOwnerBookings(userId, state);
+        log.info("Get booking with state {}, ownerId={}, from={}, size={}, after={}", stateParam, userId, from, size, after);
+        return bookingClient.getAllOwnerBookings(userId, state, from, size, after);
+    }
+
+    @GetMapping("/counts")
+    public ResponseEntity<Object> countBookerBookings(@RequestHeader("X-Sharer-User-Id") Long userId) {
+        log.info("Count bookings by state, bookerId={}", userId);
+        return bookingClient.countBookerBookings(userId);
+    }
+
+    @GetMapping("/owner/counts")
+    public ResponseEntity<Object> countOwnerBookings(@RequestHeader("X-Sharer-User-Id") Long userId) {
+        log.info("Count bookings by state, ownerId={}", userId);
+        return bookingClient.countOwnerBookings(userId);
     }
 
     @PostMapping
     public ResponseEntity<Object> createBooking(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                @RequestHeader(name = "Idempotency-Key", required = false)
+                                                @Size(max = 64) String idempotencyKey,
                                                 @RequestBody @Valid BookingCreateDto requestDto) {
-        log.info("Creating booking {}, userId={}", requestDto, userId);
+        log.info("Creating booking {}, userId={}, idempotencyKey={}", requestDto, userId, idempotencyKey);
+        if (!requestDto.getStart().isBefore(requestDto.getEnd())) {
+            String errorMessage = String.format("Дата старта аренды %s должна быть раньше даты окончания %s",
+                    requestDto.getStart(), requestDto.getEnd());
+            log.warn(errorMessage);
+            throw new WrongBookingDatesException(errorMessage);
+        }
+        return idempotencyStore.execute("createBooking", userId, idempotencyKey, requestDto,
+                () -> bookingClient.createBooking(userId, requestDto, idempotencyKey));
+    }
+
+    @PostMapping("/holds")
+    public ResponseEntity<Object> holdBooking(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                              @RequestParam(required = false) @Positive @Max(30) Integer minutes,
+                                              @RequestBody @Valid BookingCreateDto requestDto) {
+        log.info("Holding item {}, userId={}, minutes={}", requestDto, userId, minutes);
         if (!requestDto.getStart().isBefore(requestDto.getEnd())) {
             String errorMessage = String.format("Дата старта аренды %s должна быть раньше даты окончания %s",
                     requestDto.getStart(), requestDto.getEnd());
             log.warn(errorMessage);
             throw new WrongBookingDatesException(errorMessage);
         }
-        return bookingClient.createBooking(userId, requestDto);
+        return bookingClient.holdBooking(userId, requestDto, minutes);
+    }
+
+    @DeleteMapping("/holds/{holdId}")
+    public ResponseEntity<Object> releaseHold(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                              @PathVariable UUID holdId) {
+        log.info("Release hold {}, userId={}", holdId, userId);
+        return bookingClient.releaseHold(userId, holdId);
+    }
+
+    @PostMapping("/batch")
+    public ResponseEntity<Object> createBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                 @RequestBody @NotEmpty @Size(max = 500) List<@Valid @NotNull BookingCreateDto> requestDtos) {
+        log.info("Creating {} bookings in batch, userId={}", requestDtos.size(), userId);
+        for (int i = 0; i < requestDtos.size(); i++) {
+            BookingCreateDto requestDto = requestDtos.get(i);
+            if (!requestDto.getStart().isBefore(requestDto.getEnd())) {
+                String errorMessage = String.format("Бронирование %d: дата старта аренды %s должна быть раньше даты окончания %s",
+                        i, requestDto.getStart(), requestDto.getEnd());
+                log.warn(errorMessage);
+                throw new WrongBookingDatesException(errorMessage);
+            }
+        }
+        return bookingClient.createBookings(userId, requestDtos);
     }
 
     @GetMapping("/{bookingId}")
@@ -57,6 +127,13 @@ public class BookingController {
         return bookingClient.getBookingById(userId, bookingId);
     }
 
+    @PatchMapping("/approve")
+    public ResponseEntity<Object> approveAllByOwner(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                    @RequestBody @Valid BookingApprovalDto approvalDto) {
+        log.info("Approve bookings {}, ownerId={}, approved={}", approvalDto.getBookingIds(), userId, approvalDto.getApproved());
+        return bookingClient.approveAllByOwner(userId, approvalDto);
+    }
+
     @PatchMapping("/{bookingId}")
     public ResponseEntity<Object> approveByOwner(@RequestHeader("X-Sharer-User-Id") Long userId, @RequestParam boolean approved, @PathVariable Long bookingId) {
         log.info("Get approve booking {}, ownerId={}, approved={}", bookingId, userId, approved);
@@ -6,6 +6,7 @@ import jakarta.validation.constraints.NotNull;
 import lombok.Data;
 
 import java.time.LocalDateTime;
+import java.util.UUID;
 
 @Data
 public class BookingCreateDto {
@@ -17,4 +18,5 @@ public class BookingCreateDto {
     @NotNull
     @Future
     private LocalDateTime end;
+    private UUID holdId;
 }
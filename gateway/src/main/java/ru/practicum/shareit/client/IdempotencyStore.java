@@ -0,0 +1,124 @@
+package ru.practicum.shareit.client;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import ru.practicum.shareit.exception.IdempotencyConflictException;
+
+@Slf4j
+@Component
+public class IdempotencyStore {
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Queue<Entry> order = new ConcurrentLinkedQueue<>();
+    private final Duration ttl;
+    private final Duration waitTimeout;
+    private final int maxEntries;
+
+    @Autowired
+    public IdempotencyStore(@Value("${shareit.idempotency.ttl:PT24H}") Duration ttl,
+                            @Value("${shareit.idempotency.wait-timeout:PT30S}") Duration waitTimeout,
+                            @Value("${shareit.idempotency.max-entries:10000}") int maxEntries) {
+        this.ttl = ttl;
+        this.waitTimeout = waitTimeout;
+        this.maxEntries = maxEntries;
+    }
+
+    public ResponseEntity<Object> execute(String operation, Long userId, @Nullable String idempotencyKey,
+                                          Object request, Supplier<ResponseEntity<Object>> call) {
+        if (idempotencyKey == null) {
+            return call.get();
+        }
+        Instant now = Instant.now();
+        Entry created = new Entry(operation + ":" + userId + ":" + idempotencyKey, request, now.plus(ttl));
+        Entry entry = entries.compute(created.key,
+                (key, existing) -> existing == null || existing.isExpired(now) ? created : existing);
+        if (entry != created) {
+            if (!entry.request.equals(request)) {
+                throw new IdempotencyConflictException("Ключ идемпотентности " + idempotencyKey
+                        + " уже использован для другого запроса");
+            }
+            log.info("Replaying {} response for Idempotency-Key {}, userId={}", operation, idempotencyKey, userId);
+            return await(entry, idempotencyKey);
+        }
+        order.add(created);
+        evict(now);
+
+        ResponseEntity<Object> response;
+        try {
+            response = call.get();
+        } catch (RuntimeException e) {
+            entries.remove(created.key, created);
+            created.response.completeExceptionally(e);
+            throw e;
+        }
+        if (response.getStatusCode().is5xxServerError()) {
+            entries.remove(created.key, created);
+        }
+        created.response.complete(response);
+        return response;
+    }
+
+    private ResponseEntity<Object> await(Entry entry, String idempotencyKey) {
+        try {
+            return entry.response.get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new IdempotencyConflictException("Запрос с ключом идемпотентности " + idempotencyKey
+                    + " ещё выполняется");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyConflictException("Ожидание запроса с ключом идемпотентности " + idempotencyKey
+                    + " прервано");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private void evict(Instant now) {
+        Entry oldest;
+        while ((oldest = order.peek()) != null) {
+            boolean current = entries.get(oldest.key) == oldest;
+            if (current && !oldest.isExpired(now) && entries.size() <= maxEntries) {
+                break;
+            }
+            if (order.remove(oldest) && current) {
+                entries.remove(oldest.key, oldest);
+            }
+        }
+    }
+
+    private static final class Entry {
+        private final String key;
+        private final Object request;
+        private final Instant expiresAt;
+        private final CompletableFuture<ResponseEntity<Object>> response = new CompletableFuture<>();
+
+        private Entry(String key, Object request, Instant expiresAt) {
+            this.key = key;
+            this.request = request;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isExpired(Instant now) {
+            return now.isAfter(expiresAt);
+        }
+    }
+}
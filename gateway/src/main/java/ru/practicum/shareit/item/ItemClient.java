@@ -11,6 +11,8 @@ import ru.practicum.shareit.client.BaseClient;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.Map;
 
 @Component
@@ -28,8 +30,8 @@ public class ItemClient extends BaseClient {
     }
 
 
-    public ResponseEntity<Object> createItem(Long userId, ItemDto itemDto) {
-        return post("", userId, itemDto);
+    public ResponseEntity<Object> createItem(Long userId, ItemDto itemDto, String idempotencyKey) {
+        return post("", userId, itemDto, idempotencyKey);
     }
 
     public ResponseEntity<Object> updateItem(ItemDto item, Long itemId, Long userId) {
@@ -48,8 +50,29 @@ public class ItemClient extends BaseClient {
         return get("/" + itemId);
     }
 
-    public ResponseEntity<Object> getItemsBySearch(String text) {
-        Map<String, Object> parameters = Map.of("text", text);
-        return get("/search?text={text}", null, parameters);
+    public ResponseEntity<Object> getCalendar(Long itemId, LocalDateTime from, LocalDateTime to) {
+        Map<String, Object> parameters = Map.of("from", from, "to", to);
+        return get("/" + itemId + "/calendar?from={from}&to={to}", null, parameters);
+    }
+
+    public ResponseEntity<Object> getItemsBySearch(String text, Integer from, Integer size, Long after, Boolean fuzzy,
+                                                   LocalDateTime start, LocalDateTime end) {
+        Map<String, Object> parameters = new HashMap<>(Map.of("text", text, "from", from, "size", size, "fuzzy", fuzzy));
+        String path = "/search?text={text}&from={from}&size={size}&fuzzy={fuzzy}";
+        if (after != null) {
+            parameters.put("after", after);
+            path += "&after={after}";
+        }
+        if (start != null) {
+            parameters.put("start", start);
+            parameters.put("end", end);
+            path += "&start={start}&end={end}";
+        }
+        return get(path, null, parameters);
+    }
+
+    public ResponseEntity<Object> getNameSuggestions(String prefix, Integer size) {
+        Map<String, Object> parameters = Map.of("prefix", prefix, "size", size);
+        return get("/suggest?prefix={prefix}&size={size}", null, parameters);
     }
 }
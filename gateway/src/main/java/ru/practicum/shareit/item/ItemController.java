@@ -1,22 +1,35 @@
 package ru.practicum.shareit.item;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.client.IdempotencyStore;
+import ru.practicum.shareit.exception.WrongBookingDatesException;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 
+@Validated
 @Slf4j
 @RestController
 @RequiredArgsConstructor
 @RequestMapping("/items")
 public class ItemController {
+    private static final int MAX_CALENDAR_DAYS = 366;
+
     private final ItemClient itemClient;
+    private final IdempotencyStore idempotencyStore;
 
     @GetMapping
     public ResponseEntity<Object> getAllItems(@RequestHeader("X-Sharer-User-Id") Long userId) {
@@ -30,16 +43,52 @@ public class ItemController {
         return itemClient.getItemById(itemId);
     }
 
+    @GetMapping("/{itemId}/calendar")
+    public ResponseEntity<Object> getCalendar(@PathVariable Long itemId,
+                                              @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                              @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        log.info("Get calendar of item {} from {} to {}", itemId, from, to);
+        if (!from.isBefore(to) || from.plusDays(MAX_CALENDAR_DAYS).isBefore(to)) {
+            String errorMessage = String.format("Период календаря задан неверно: начало %s, окончание %s (не больше %d дней)",
+                    from, to, MAX_CALENDAR_DAYS);
+            log.warn(errorMessage);
+            throw new WrongBookingDatesException(errorMessage);
+        }
+        return itemClient.getCalendar(itemId, from, to);
+    }
+
     @GetMapping("/search")
-    public ResponseEntity<Object> getItemsBySearch(@RequestParam String text) {
-        log.info("Get items by search");
-        return text.isBlank() ? ResponseEntity.ok(new ArrayList<>())  : itemClient.getItemsBySearch(text);
+    public ResponseEntity<Object> getItemsBySearch(@RequestParam String text,
+                                                   @RequestParam(defaultValue = "0") @PositiveOrZero Integer from,
+                                                   @RequestParam(defaultValue = "20") @Positive @Max(100) Integer size,
+                                                   @RequestParam(required = false) @Positive Long after,
+                                                   @RequestParam(defaultValue = "false") Boolean fuzzy,
+                                                   @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+                                                   @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
+        log.info("Get items by search, from={}, size={}, after={}, fuzzy={}, free from {} to {}", from, size, after, fuzzy, start, end);
+        if ((start == null) != (end == null) || (start != null && !start.isBefore(end))) {
+            String errorMessage = String.format("Период поиска задан неверно: начало %s, окончание %s", start, end);
+            log.warn(errorMessage);
+            throw new WrongBookingDatesException(errorMessage);
+        }
+        return text.isBlank() ? ResponseEntity.ok(new ArrayList<>())
+                : itemClient.getItemsBySearch(text, from, size, after, fuzzy, start, end);
+    }
+
+    @GetMapping("/suggest")
+    public ResponseEntity<Object> getNameSuggestions(@RequestParam String prefix,
+                                                     @RequestParam(defaultValue = "10") @Positive @Max(10) Integer size) {
+        log.info("Get item name suggestions by prefix {}", prefix);
+        return prefix.isBlank() ? ResponseEntity.ok(new ArrayList<>()) : itemClient.getNameSuggestions(prefix, size);
     }
 
     @PostMapping
-    public ResponseEntity<Object> create(@RequestHeader("X-Sharer-User-Id") Long userId, @RequestBody @Valid ItemDto itemDto) {
-        log.info("Create item: {}", itemDto);
-        return itemClient.createItem(userId, itemDto);
+    public ResponseEntity<Object> create(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                         @RequestHeader(name = "Idempotency-Key", required = false) @Size(max = 64) String idempotencyKey,
+                                         @RequestBody @Valid ItemDto itemDto) {
+        log.info("Create item: {}, idempotencyKey={}", itemDto, idempotencyKey);
+        return idempotencyStore.execute("createItem", userId, idempotencyKey, itemDto,
+                () -> itemClient.createItem(userId, itemDto, idempotencyKey));
     }
 
     @PatchMapping("/{itemId}")
@@ -0,0 +1,8 @@
+package ru.practicum.shareit.booking;
+
+public enum BookingApprovalOutcome {
+    UPDATED,
+    NOT_FOUND,
+    NOT_OWNER,
+    NOT_WAITING
+}
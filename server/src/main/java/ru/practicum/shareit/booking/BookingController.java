@@ -3,10 +3,17 @@ package ru.practicum.shareit.booking;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.booking.dto.BookingApprovalDto;
+import ru.practicum.shareit.booking.dto.BookingApprovalResultDto;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.dto.BookingHoldDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 
 @RequiredArgsConstructor
 @Slf4j
@@ -22,21 +29,70 @@ public class BookingController {
     }
 
     @GetMapping()
-    public List<BookingResponseDto> getAllBookerBookings(@RequestHeader("X-Sharer-User-Id") Long userId, @RequestParam(defaultValue = "ALL") State state) {
+    public List<BookingResponseDto> getAllBookerBookings(@RequestHeader("X-Sharer-User-Id") Long userId, @RequestParam(defaultValue = "ALL") State state,
+                                                         @RequestParam(defaultValue = "0") int from,
+                                                         @RequestParam(defaultValue = "20") int size,
+                                                         @RequestParam(required = false) Long after) {
         log.info("Получен HTTP-запрос на получение списка бронирований со статусом {} пользователя с id {}", state.toString(), userId);
-        return bookingService.getAllBookerBookings(userId, state);
+        return bookingService.getAllBookerBookings(userId, state, from, size, after);
     }
 
     @GetMapping("/owner")
-    public List<BookingResponseDto> getAllOwnerBookings(@RequestHeader("X-Sharer-User-Id") Long userId, @RequestParam(defaultValue = "ALL") State state) {
+    public List<BookingResponseDto> getAllOwnerBookings(@RequestHeader("X-Sharer-User-Id") Long userId, @RequestParam(defaultValue = "ALL") State state,
+                                                        @RequestParam(defaultValue = "0") int from,
+                                                        @RequestParam(defaultValue = "20") int size,
+                                                        @RequestParam(required = false) Long after) {
         log.info("Получен HTTP-запрос на получение списка бронирований со статусом {} владельца с id {}", state.toString(), userId);
-        return bookingService.getAllOwnerBookings(userId, state);
+        return bookingService.getAllOwnerBookings(userId, state, from, size, after);
+    }
+
+    @GetMapping("/counts")
+    public Map<State, Long> countBookerBookings(@RequestHeader("X-Sharer-User-Id") Long userId) {
+        log.info("Получен HTTP-запрос на подсчёт бронирований по статусам пользователя с id {}", userId);
+        return bookingService.countBookerBookings(userId);
+    }
+
+    @GetMapping("/owner/counts")
+    public Map<State, Long> countOwnerBookings(@RequestHeader("X-Sharer-User-Id") Long userId) {
+        log.info("Получен HTTP-запрос на подсчёт бронирований по статусам владельца с id {}", userId);
+        return bookingService.countOwnerBookings(userId);
     }
 
     @PostMapping()
-    public BookingResponseDto create(@RequestHeader("X-Sharer-User-Id") Long userId, @RequestBody BookingCreateDto bookingCreateDto) {
+    public BookingResponseDto create(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                     @RequestHeader(name = "Idempotency-Key", required = false) String idempotencyKey,
+                                     @RequestBody BookingCreateDto bookingCreateDto) {
         log.info("Получен HTTP-запрос на создание бронирования");
-        return bookingService.create(userId, bookingCreateDto);
+        return bookingService.create(userId, bookingCreateDto, idempotencyKey);
+    }
+
+    @PostMapping("/holds")
+    public BookingHoldDto hold(@RequestHeader("X-Sharer-User-Id") Long userId,
+                               @RequestParam(required = false) Integer minutes,
+                               @RequestBody BookingCreateDto bookingCreateDto) {
+        log.info("Получен HTTP-запрос на временный резерв вещи с id {}", bookingCreateDto.getItemId());
+        return bookingService.hold(userId, bookingCreateDto, minutes == null ? null : Duration.ofMinutes(minutes));
+    }
+
+    @DeleteMapping("/holds/{holdId}")
+    public void releaseHold(@RequestHeader("X-Sharer-User-Id") Long userId, @PathVariable UUID holdId) {
+        log.info("Получен HTTP-запрос на снятие резерва {}", holdId);
+        bookingService.releaseHold(userId, holdId);
+    }
+
+    @PostMapping("/batch")
+    public List<BookingBatchResultDto> createAll(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                 @RequestBody List<BookingCreateDto> bookingCreateDtos) {
+        log.info("Получен HTTP-запрос на пакетное создание {} бронирований", bookingCreateDtos.size());
+        return bookingService.createAll(userId, bookingCreateDtos);
+    }
+
+    @PatchMapping("/approve")
+    public List<BookingApprovalResultDto> approveAllByOwner(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                            @RequestBody BookingApprovalDto approvalDto) {
+        log.info("Получен HTTP-запрос на изменение статуса бронирований {} от владельца c id {} на {}",
+                approvalDto.getBookingIds(), userId, approvalDto.getApproved());
+        return bookingService.approveAllByOwner(userId, approvalDto);
     }
 
     @PatchMapping("/{bookingId}")
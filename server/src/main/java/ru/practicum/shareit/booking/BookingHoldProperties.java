@@ -0,0 +1,16 @@
+package ru.practicum.shareit.booking;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.holds")
+public class BookingHoldProperties {
+    private Duration tick = Duration.ofSeconds(1);
+    private Duration defaultDuration = Duration.ofMinutes(10);
+    private Duration maxDuration = Duration.ofMinutes(30);
+}
@@ -0,0 +1,124 @@
+package ru.practicum.shareit.booking;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.model.BookingHold;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Slf4j
+@Component
+public class BookingHoldWheel {
+    private static final int WHEEL_SIZE = 512;
+
+    private final Duration tick;
+    private final Map<UUID, Slot>[] buckets;
+    private final Map<UUID, BookingHold> holds = new ConcurrentHashMap<>();
+    private final Map<Long, Set<BookingHold>> holdsByItem = new ConcurrentHashMap<>();
+    private final Map<UUID, Slot> slots = new HashMap<>();
+    private int cursor;
+
+    @SuppressWarnings("unchecked")
+    public BookingHoldWheel(BookingHoldProperties properties) {
+        this.tick = properties.getTick();
+        this.buckets = new Map[WHEEL_SIZE];
+        for (int i = 0; i < WHEEL_SIZE; i++) {
+            buckets[i] = new HashMap<>();
+        }
+    }
+
+    public void add(BookingHold hold, Duration ttl) {
+        long ticks = Math.max(1, (ttl.toMillis() + tick.toMillis() - 1) / tick.toMillis());
+        holds.put(hold.getId(), hold);
+        holdsByItem.compute(hold.getItemId(), (id, itemHolds) -> {
+            Set<BookingHold> updated = itemHolds == null ? ConcurrentHashMap.newKeySet() : itemHolds;
+            updated.add(hold);
+            return updated;
+        });
+        synchronized (this) {
+            Slot slot = new Slot(hold, (int) ((cursor + ticks) % WHEEL_SIZE), (ticks - 1) / WHEEL_SIZE);
+            buckets[slot.bucket].put(hold.getId(), slot);
+            slots.put(hold.getId(), slot);
+        }
+    }
+
+    public Optional<BookingHold> get(UUID holdId, LocalDateTime now) {
+        return Optional.ofNullable(holds.get(holdId))
+                .filter(hold -> !hold.isExpired(now));
+    }
+
+    public boolean isHeld(Long itemId, LocalDateTime start, LocalDateTime end, UUID exceptHoldId,
+                          LocalDateTime now) {
+        Set<BookingHold> itemHolds = holdsByItem.get(itemId);
+        return itemHolds != null && itemHolds.stream()
+                .anyMatch(hold -> !hold.getId().equals(exceptHoldId) && !hold.isExpired(now)
+                        && hold.overlaps(start, end));
+    }
+
+    public void remove(UUID holdId) {
+        BookingHold hold = holds.remove(holdId);
+        if (hold == null) {
+            return;
+        }
+        forget(hold);
+        synchronized (this) {
+            Slot slot = slots.remove(holdId);
+            if (slot != null) {
+                buckets[slot.bucket].remove(holdId);
+            }
+        }
+    }
+
+    @Scheduled(fixedRateString = "${shareit.holds.tick:PT1S}")
+    public void advance() {
+        int expired = 0;
+        synchronized (this) {
+            cursor = (cursor + 1) % WHEEL_SIZE;
+            Iterator<Slot> iterator = buckets[cursor].values().iterator();
+            while (iterator.hasNext()) {
+                Slot slot = iterator.next();
+                if (slot.rounds > 0) {
+                    slot.rounds--;
+                    continue;
+                }
+                iterator.remove();
+                slots.remove(slot.hold.getId());
+                if (holds.remove(slot.hold.getId(), slot.hold)) {
+                    forget(slot.hold);
+                    expired++;
+                }
+            }
+        }
+        if (expired > 0) {
+            log.debug("Истекло {} временных резервов вещей", expired);
+        }
+    }
+
+    private void forget(BookingHold hold) {
+        holdsByItem.computeIfPresent(hold.getItemId(), (id, itemHolds) -> {
+            itemHolds.remove(hold);
+            return itemHolds.isEmpty() ? null : itemHolds;
+        });
+    }
+
+    private static final class Slot {
+        private final BookingHold hold;
+        private final int bucket;
+        private long rounds;
+
+        private Slot(BookingHold hold, int bucket, long rounds) {
+            this.hold = hold;
+            this.bucket = bucket;
+            this.rounds = rounds;
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "shareit.bookings.partitioning", name = "enabled", havingValue = "true")
+public class BookingPartitionManager {
+    private static final String PARENT = "bookings";
+    private static final String ARCHIVE = "bookings_archive";
+    private static final String DEFAULT = "bookings_default";
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+    private static final Pattern MONTH_PARTITION = Pattern.compile("bookings_p(\\d{4})_(\\d{2})");
+    private static final Pattern UPPER_BOUND = Pattern.compile("TO \\('(\\d{4}-\\d{2}-\\d{2})");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final BookingPartitionProperties properties;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${shareit.bookings.partitioning.cron:0 30 3 * * *}")
+    public void maintain() {
+        YearMonth current = YearMonth.now();
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!lock()) {
+                log.info("Обслуживание секций бронирований уже выполняется другим экземпляром");
+                return;
+            }
+            jdbcTemplate.queryForObject("SELECT set_config('shareit.moving_bookings', 'on', true)", String.class);
+            archiveBefore(current.minusMonths(properties.getHotMonths()));
+            Set<YearMonth> existing = monthPartitions(PARENT);
+            for (YearMonth month = YearMonth.from(archiveBound());
+                 !month.isAfter(current.plusMonths(properties.getMonthsAhead())); month = month.plusMonths(1)) {
+                if (!existing.contains(month)) {
+                    attach(PARENT, moveFromDefault(month), month);
+                    log.info("Создана секция бронирований за {}", month);
+                }
+            }
+        });
+    }
+
+    private void archiveBefore(YearMonth cutoff) {
+        LocalDate bound = archiveBound();
+        if (!bound.isBefore(cutoff.atDay(1))) {
+            return;
+        }
+        Set<YearMonth> months = new TreeSet<>();
+        for (YearMonth month : monthPartitions(PARENT)) {
+            if (month.isBefore(cutoff)) {
+                months.add(month);
+            }
+        }
+        months.addAll(jdbcTemplate.queryForList("SELECT DISTINCT date_trunc('month', start_date)::date FROM "
+                        + DEFAULT + " WHERE start_date >= ? AND start_date < ?", LocalDate.class,
+                bound.atStartOfDay(), cutoff.atDay(1).atStartOfDay()).stream()
+                .map(YearMonth::from)
+                .collect(Collectors.toSet()));
+
+        jdbcTemplate.execute("ALTER TABLE " + PARENT + " DETACH PARTITION " + ARCHIVE);
+        Set<YearMonth> hot = monthPartitions(PARENT);
+        for (YearMonth month : months) {
+            String table;
+            if (hot.contains(month)) {
+                table = partitionName(month);
+                jdbcTemplate.execute("ALTER TABLE " + PARENT + " DETACH PARTITION " + table);
+            } else {
+                table = moveFromDefault(month);
+            }
+            attach(ARCHIVE, table, month);
+        }
+        jdbcTemplate.execute("ALTER TABLE " + PARENT + " ATTACH PARTITION " + ARCHIVE
+                + " FOR VALUES FROM (MINVALUE) TO ('" + cutoff.atDay(1) + "')");
+        log.info("В архив бронирований перенесены секции за {}, граница архива {}", months, cutoff.atDay(1));
+    }
+
+    private String moveFromDefault(YearMonth month) {
+        String table = partitionName(month);
+        LocalDateTime from = month.atDay(1).atStartOfDay();
+        LocalDateTime to = month.plusMonths(1).atDay(1).atStartOfDay();
+        jdbcTemplate.execute("CREATE TABLE " + table + " (LIKE " + PARENT + " INCLUDING DEFAULTS INCLUDING CONSTRAINTS)");
+        int moved = jdbcTemplate.update("WITH moved AS (DELETE FROM " + DEFAULT
+                + " WHERE start_date >= ? AND start_date < ? RETURNING *) INSERT INTO " + table
+                + " SELECT * FROM moved", from, to);
+        if (moved > 0) {
+            log.info("В секцию {} перенесено {} бронирований из секции по умолчанию", table, moved);
+        }
+        return table;
+    }
+
+    private void attach(String parent, String table, YearMonth month) {
+        jdbcTemplate.execute("ALTER TABLE " + parent + " ATTACH PARTITION " + table
+                + " FOR VALUES FROM ('" + month.atDay(1) + "') TO ('" + month.plusMonths(1).atDay(1) + "')");
+    }
+
+    private boolean lock() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT pg_try_advisory_xact_lock(hashtext('" + PARENT + "_partitions'))", Boolean.class));
+    }
+
+    private LocalDate archiveBound() {
+        String bound = jdbcTemplate.queryForObject("SELECT pg_get_expr(relpartbound, oid) FROM pg_class "
+                + "WHERE relname = ?", String.class, ARCHIVE);
+        Matcher matcher = UPPER_BOUND.matcher(String.valueOf(bound));
+        if (!matcher.find()) {
+            throw new IllegalStateException("Не удалось определить границу архива бронирований: " + bound);
+        }
+        return LocalDate.parse(matcher.group(1));
+    }
+
+    private Set<YearMonth> monthPartitions(String parent) {
+        List<String> names = jdbcTemplate.queryForList("SELECT c.relname FROM pg_inherits i "
+                + "JOIN pg_class c ON c.oid = i.inhrelid WHERE i.inhparent = ?::regclass", String.class, parent);
+        Set<YearMonth> months = new TreeSet<>();
+        for (String name : names) {
+            Matcher matcher = MONTH_PARTITION.matcher(name);
+            if (matcher.matches()) {
+                months.add(YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2))));
+            }
+        }
+        return months;
+    }
+
+    private static String partitionName(YearMonth month) {
+        return "bookings_p" + month.format(SUFFIX);
+    }
+}
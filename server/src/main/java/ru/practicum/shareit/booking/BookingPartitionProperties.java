@@ -0,0 +1,14 @@
+package ru.practicum.shareit.booking;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.bookings.partitioning")
+public class BookingPartitionProperties {
+    private boolean enabled = false;
+    private int monthsAhead = 3;
+    private int hotMonths = 12;
+}
@@ -1,35 +1,69 @@
 package ru.practicum.shareit.booking;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.dto.BookingOwnership;
+import ru.practicum.shareit.booking.dto.BookingPeriod;
+import ru.practicum.shareit.booking.dto.BookingStateCounts;
 import ru.practicum.shareit.booking.model.Booking;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
 @Repository
-public interface BookingRepository extends JpaRepository<Booking, Long> {
-    List<Booking> findByBookerId(Long bookerId);
+public interface BookingRepository extends JpaRepository<Booking, Long>, JpaSpecificationExecutor<Booking>,
+        BookingRepositoryCustom {
+    String STATE_COUNTS = "select new ru.practicum.shareit.booking.dto.BookingStateCounts(count(b), " +
+            "count(b) filter (where b.start < cast(:now as LocalDateTime) and b.end > cast(:now as LocalDateTime)), " +
+            "count(b) filter (where b.end < cast(:now as LocalDateTime)), " +
+            "count(b) filter (where b.start > cast(:now as LocalDateTime)), " +
+            "count(b) filter (where b.status = ru.practicum.shareit.booking.Status.WAITING), " +
+            "count(b) filter (where b.status = ru.practicum.shareit.booking.Status.REJECTED)) " +
+            "from Booking b ";
 
-    List<Booking> findAllByBookerIdAndStartAfterOrderByStartDesc(Long bookerId, LocalDateTime now);
+    @Override
+    @EntityGraph(attributePaths = {"item", "item.owner", "booker"})
+    Optional<Booking> findById(Long id);
 
-    List<Booking> findByBookerIdAndStatusEqualsOrderByStartDesc(Long bookerId, String status);
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Booking b set b.status = :status, b.version = b.version + 1 " +
+            "where b.id in :bookingIds and b.status = ru.practicum.shareit.booking.Status.WAITING")
+    int updateStatusIfWaiting(Collection<Long> bookingIds, Status status);
 
-    List<Booking> findAllByBookerIdAndStartBeforeAndEndAfterOrderByStartDesc(Long bookerId,
-                                                                             LocalDateTime now1, LocalDateTime now2);
+    @Query("select new ru.practicum.shareit.booking.dto.BookingOwnership(b.id, b.item.owner.id, b.status) " +
+            "from Booking b where b.id in :bookingIds")
+    List<BookingOwnership> findOwnershipByIdIn(Collection<Long> bookingIds);
 
-    List<Booking> findAllByBookerIdAndEndBeforeOrderByStartDesc(Long bookerId, LocalDateTime now);
+    @Query(STATE_COUNTS + "where b.booker.id = :bookerId")
+    BookingStateCounts countStatesByBookerId(Long bookerId, LocalDateTime now);
 
-    List<Booking> findAllByItemOwnerIdOrderByStartDesc(Long ownerId);
+    @Query(STATE_COUNTS + "join b.item i where i.owner.id = :ownerId")
+    BookingStateCounts countStatesByOwnerId(Long ownerId, LocalDateTime now);
 
-    List<Booking> findAllByItemOwnerIdAndStatusEqualsOrderByStartDesc(Long ownerId, String status);
+    boolean existsByItemIdAndStatusInAndStartBeforeAndEndAfter(Long itemId, Collection<Status> statuses,
+                                                               LocalDateTime end, LocalDateTime start);
 
-    List<Booking> findAllByItemOwnerIdAndStartBeforeAndEndAfterOrderByStartDesc(Long bookerId,
-                                                                                LocalDateTime now1, LocalDateTime now2);
+    List<Booking> findByItemIdInAndStatusInAndStartBeforeAndEndAfter(Collection<Long> itemIds,
+                                                                    Collection<Status> statuses,
+                                                                    LocalDateTime end, LocalDateTime start);
 
-    List<Booking> findAllByItemOwnerIdAndStartAfterOrderByStartDesc(Long bookerId, LocalDateTime now);
+    @Query("select new ru.practicum.shareit.booking.dto.BookingPeriod(b.start, b.end) from Booking b " +
+            "where b.item.id = :itemId and b.status in :statuses")
+    List<BookingPeriod> findPeriodsByItemIdAndStatusIn(Long itemId, Collection<Status> statuses);
 
-    List<Booking> findAllByItemOwnerIdAndEndBeforeOrderByStartDesc(Long bookerId, LocalDateTime now);
+    List<Booking> findAllByItemIdAndBookerIdAndStartBeforeAndEndBefore(Long itemId, Long bookerId, LocalDateTime start,
+                                                                      LocalDateTime end);
 
-    List<Booking> findAllByItemIdAndBookerIdAndEndBefore(Long itemId, Long bookerId, LocalDateTime now);
+    @Query("select distinct b.item.id from Booking b " +
+            "where b.item.id in :itemIds " +
+            "and b.status in (ru.practicum.shareit.booking.Status.APPROVED, ru.practicum.shareit.booking.Status.WAITING) " +
+            "and b.start < :end and b.end > :start")
+    Set<Long> findItemIdsBookedBetween(Collection<Long> itemIds, LocalDateTime start, LocalDateTime end);
 }
@@ -2,28 +2,68 @@ package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.BookingApprovalDto;
+import ru.practicum.shareit.booking.dto.BookingApprovalResultDto;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.dto.BookingHoldDto;
+import ru.practicum.shareit.booking.dto.BookingOwnership;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.dto.BookingStateCounts;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingHold;
+import ru.practicum.shareit.booking.outbox.BookingEventType;
+import ru.practicum.shareit.booking.outbox.OutboxService;
 import ru.practicum.shareit.exception.*;
+import ru.practicum.shareit.idempotency.IdempotencyScope;
+import ru.practicum.shareit.idempotency.IdempotencyService;
 import ru.practicum.shareit.item.ItemService;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.summary.ItemBookingSummaryService;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
 import ru.practicum.shareit.user.UserService;
 import ru.practicum.shareit.user.model.User;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class BookingService {
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Direction.DESC, "start", "id");
+    private static final List<Status> ACTIVE_STATUSES = List.of(Status.WAITING, Status.APPROVED);
+    private static final String OVERLAP_CONSTRAINT = "bookings_no_overlap";
+
     private final BookingRepository bookingRepository;
     private final UserService userService;
     private final ItemService itemService;
+    private final ItemLockStripes itemLockStripes;
+    private final ItemBookingSummaryService itemBookingSummaryService;
+    private final ItemOccupancyIndex itemOccupancyIndex;
+    private final OutboxService outboxService;
+    private final TransactionTemplate transactionTemplate;
+    private final IdempotencyService idempotencyService;
+    private final BookingHoldWheel bookingHoldWheel;
+    private final BookingHoldProperties bookingHoldProperties;
 
     public BookingResponseDto getBookingById(Long bookingId) {
         Booking booking = getBookingIfExistOrElseThrow(bookingId);
@@ -35,100 +75,284 @@ public class BookingService {
                 .orElseThrow(() -> new BookingNotFoundException("Бронирование с id " + bookingId + " не существует"));
     }
 
-    public List<BookingResponseDto> getAllBookerBookings(Long userId, State state) {
-        userService.getUserIfExistOrElseThrow(userId);
-        LocalDateTime now = LocalDateTime.now();
-        if (state.equals(State.ALL)) {
-            List<Booking> allBookings = bookingRepository.findByBookerId(userId);
-            return allBookings.stream()
-                    .map(BookingMapper::bookingToDto)
-                    .toList();
-        } else if (state.equals(State.CURRENT)) {
-            List<Booking> currentBookings = bookingRepository.findAllByBookerIdAndStartBeforeAndEndAfterOrderByStartDesc(
-                    userId, now, now);
-            return currentBookings.stream()
-                    .map(BookingMapper::bookingToDto)
-                    .toList();
-        } else if (state.equals(State.PAST)) {
-            List<Booking> endedBookings = bookingRepository.findAllByBookerIdAndEndBeforeOrderByStartDesc(userId, now);
-            return endedBookings.stream()
-                    .map(BookingMapper::bookingToDto)
-                    .toList();
-        } else if (state.equals(State.FUTURE)) {
-            List<Booking> futureBookings = bookingRepository.findAllByBookerIdAndStartAfterOrderByStartDesc(userId, now);
-            return futureBookings.stream()
-                    .map(BookingMapper::bookingToDto)
-                    .toList();
-        } else if (state.equals(State.REJECTED)) {
-            List<Booking> rejectedBookings = bookingRepository
-                    .findByBookerIdAndStatusEqualsOrderByStartDesc(userId, state.toString());
-            return rejectedBookings.stream()
-                    .map(BookingMapper::bookingToDto)
-                    .toList();
-        } else if (state.equals(State.WAITING)) {
-            List<Booking> waitingBookings = bookingRepository
-                    .findByBookerIdAndStatusEqualsOrderByStartDesc(userId, state.toString());
-            return waitingBookings.stream()
-                    .map(BookingMapper::bookingToDto)
-                    .toList();
-        }
-        return new ArrayList<>();
-    }
-
-    public List<BookingResponseDto> getAllOwnerBookings(Long userId, State state) {
-        userService.getUserIfExistOrElseThrow(userId);
-        LocalDateTime now = LocalDateTime.now();
-        if (state.equals(State.ALL)) {
-            List<Booking> allBookings = bookingRepository.findAllByItemOwnerIdOrderByStartDesc(userId);
-            return allBookings.stream()
-                    .map(BookingMapper::bookingToDto)
-                    .toList();
-        } else if (state.equals(State.CURRENT)) {
-            List<Booking> currentBookings = bookingRepository.findAllByItemOwnerIdAndStartBeforeAndEndAfterOrderByStartDesc(
-                    userId, now, now);
-            return currentBookings.stream()
-                    .map(BookingMapper::bookingToDto)
-                    .toList();
-        } else if (state.equals(State.PAST)) {
-            List<Booking> endedBookings = bookingRepository.findAllByItemOwnerIdAndEndBeforeOrderByStartDesc(userId, now);
-            return endedBookings.stream()
-                    .map(BookingMapper::bookingToDto)
-                    .toList();
-        } else if (state.equals(State.FUTURE)) {
-            List<Booking> futureBookings = bookingRepository.findAllByItemOwnerIdAndStartAfterOrderByStartDesc(userId, now);
-            return futureBookings.stream()
-                    .map(BookingMapper::bookingToDto)
-                    .toList();
-        } else if (state.equals(State.REJECTED)) {
-            List<Booking> rejectedBookings = bookingRepository
-                    .findAllByItemOwnerIdAndStatusEqualsOrderByStartDesc(userId, state.toString());
-            return rejectedBookings.stream()
-                    .map(BookingMapper::bookingToDto)
-                    .toList();
-        } else if (state.equals(State.WAITING)) {
-            List<Booking> waitingBookings = bookingRepository
-                    .findAllByItemOwnerIdAndStatusEqualsOrderByStartDesc(userId, state.toString());
-            return waitingBookings.stream()
-                    .map(BookingMapper::bookingToDto)
-                    .toList();
-        }
-        return new ArrayList<>();
+    public List<BookingResponseDto> getAllBookerBookings(Long userId, State state, int from, int size, Long after) {
+        userService.checkUserExists(userId);
+        return findBookings(BookingSpecifications.byBooker(userId), state, from, size, after);
+    }
+
+    public List<BookingResponseDto> getAllOwnerBookings(Long userId, State state, int from, int size, Long after) {
+        userService.checkUserExists(userId);
+        return findBookings(BookingSpecifications.byItemOwner(userId), state, from, size, after);
+    }
+
+    public Map<State, Long> countBookerBookings(Long userId) {
+        userService.checkUserExists(userId);
+        return toStateMap(bookingRepository.countStatesByBookerId(userId, LocalDateTime.now()));
+    }
+
+    public Map<State, Long> countOwnerBookings(Long userId) {
+        userService.checkUserExists(userId);
+        return toStateMap(bookingRepository.countStatesByOwnerId(userId, LocalDateTime.now()));
+    }
+
+    private static Map<State, Long> toStateMap(BookingStateCounts counts) {
+        Map<State, Long> byState = new EnumMap<>(State.class);
+        byState.put(State.ALL, counts.getAll());
+        byState.put(State.CURRENT, counts.getCurrent());
+        byState.put(State.PAST, counts.getPast());
+        byState.put(State.FUTURE, counts.getFuture());
+        byState.put(State.WAITING, counts.getWaiting());
+        byState.put(State.REJECTED, counts.getRejected());
+        return byState;
+    }
+
+    private List<BookingResponseDto> findBookings(Specification<Booking> byUser, State state, int from, int size,
+                                                  Long after) {
+        OffsetPageRequest.validate(from, size);
+        Specification<Booking> spec = byUser.and(BookingSpecifications.inState(state, LocalDateTime.now()));
+        List<Booking> bookings = after == null
+                ? bookingRepository.findWithItemAndBooker(spec, NEWEST_FIRST, from, size)
+                : bookingRepository.findWithItemAndBooker(spec.and(BookingSpecifications.after(after, byUser)),
+                NEWEST_FIRST, 0, size);
+        return bookings.stream()
+                .map(BookingMapper::bookingToDto)
+                .toList();
     }
 
     public BookingResponseDto create(Long userId, BookingCreateDto bookingCreateDto) {
+        return create(userId, bookingCreateDto, null);
+    }
+
+    public BookingResponseDto create(Long userId, BookingCreateDto bookingCreateDto, String idempotencyKey) {
+        Optional<Long> replayed = idempotencyService.findResourceId(userId, IdempotencyScope.BOOKING, idempotencyKey,
+                bookingCreateDto);
+        if (replayed.isPresent()) {
+            log.info("Повтор создания бронирования по ключу идемпотентности {}, бронирование с id {}",
+                    idempotencyKey, replayed.get());
+            return getBookingById(replayed.get());
+        }
         User user = userService.getUserIfExistOrElseThrow(userId);
         Long itemId = bookingCreateDto.getItemId();
+        Item item = getAvailableItemOrElseThrow(itemId);
+        Booking booking = BookingMapper.dtoToBooking(bookingCreateDto, user, item);
+        UUID holdId = bookingCreateDto.getHoldId();
+        Booking savedBooking = itemLockStripes.withLock(itemId, () -> {
+            if (holdId != null) {
+                checkHold(userId, holdId, booking);
+            }
+            Booking saved = transactionTemplate.execute(status -> {
+                Optional<Long> concurrent = idempotencyService.findResourceId(userId, IdempotencyScope.BOOKING,
+                        idempotencyKey, bookingCreateDto);
+                if (concurrent.isPresent()) {
+                    return getBookingIfExistOrElseThrow(concurrent.get());
+                }
+                Booking created = saveIfFree(booking, holdId);
+                idempotencyService.remember(userId, IdempotencyScope.BOOKING, idempotencyKey, bookingCreateDto,
+                        created.getId());
+                return created;
+            });
+            if (holdId != null) {
+                bookingHoldWheel.remove(holdId);
+            }
+            return saved;
+        });
+        return BookingMapper.bookingToDto(savedBooking);
+    }
+
+    public BookingHoldDto hold(Long userId, BookingCreateDto bookingCreateDto, Duration duration) {
+        userService.checkUserExists(userId);
+        Long itemId = bookingCreateDto.getItemId();
+        getAvailableItemOrElseThrow(itemId);
+        Duration ttl = duration == null ? bookingHoldProperties.getDefaultDuration() : duration;
+        if (ttl.compareTo(bookingHoldProperties.getMaxDuration()) > 0) {
+            ttl = bookingHoldProperties.getMaxDuration();
+        }
+        BookingHold hold = new BookingHold(UUID.randomUUID(), itemId, userId, bookingCreateDto.getStart(),
+                bookingCreateDto.getEnd(), LocalDateTime.now().plus(ttl));
+        Duration holdTtl = ttl;
+        itemLockStripes.withLock(itemId, () -> {
+            ensureFree(itemId, hold.getStart(), hold.getEnd(), null);
+            bookingHoldWheel.add(hold, holdTtl);
+            return hold;
+        });
+        log.info("Пользователь с id {} зарезервировал вещь с id {} на период с {} по {} до {}", userId, itemId,
+                hold.getStart(), hold.getEnd(), hold.getExpiresAt());
+        return BookingMapper.holdToDto(hold);
+    }
+
+    public void releaseHold(Long userId, UUID holdId) {
+        BookingHold hold = getHoldIfExistOrElseThrow(userId, holdId);
+        bookingHoldWheel.remove(hold.getId());
+        log.info("Пользователь с id {} снял резерв {} вещи с id {}", userId, holdId, hold.getItemId());
+    }
+
+    private BookingHold getHoldIfExistOrElseThrow(Long userId, UUID holdId) {
+        return bookingHoldWheel.get(holdId, LocalDateTime.now())
+                .filter(hold -> hold.getUserId().equals(userId))
+                .orElseThrow(() -> new BookingHoldNotFoundException("Резерв с id " + holdId + " не найден или истёк"));
+    }
+
+    private void checkHold(Long userId, UUID holdId, Booking booking) {
+        BookingHold hold = getHoldIfExistOrElseThrow(userId, holdId);
+        if (!hold.getItemId().equals(booking.getItem().getId()) || hold.getStart().isAfter(booking.getStart())
+                || hold.getEnd().isBefore(booking.getEnd())) {
+            String errorMessage = String.format("Бронирование вещи с id %d на период с %s по %s не совпадает с резервом %s",
+                    booking.getItem().getId(), booking.getStart(), booking.getEnd(), holdId);
+            log.warn(errorMessage);
+            throw new ValidationException(errorMessage);
+        }
+    }
+
+    private Item getAvailableItemOrElseThrow(Long itemId) {
         Item item = itemService.getItemIfExistOrElseThrow(itemId);
         if (!item.getAvailable()) {
             String errorMessage = String.format("Вещь с id %d недоступна бля бронирования", itemId);
             log.warn(errorMessage);
             throw new ItemNotAvailableException(errorMessage);
         }
-        Booking booking = BookingMapper.dtoToBooking(bookingCreateDto, user, item);
-        Booking savedBooking = bookingRepository.save(booking);
-        return BookingMapper.bookingToDto(savedBooking);
+        return item;
+    }
+
+    private void ensureFree(Long itemId, LocalDateTime start, LocalDateTime end, UUID exceptHoldId) {
+        if (bookingHoldWheel.isHeld(itemId, start, end, exceptHoldId, LocalDateTime.now())) {
+            String errorMessage = String.format("Вещь с id %d временно зарезервирована на период с %s по %s",
+                    itemId, start, end);
+            log.warn(errorMessage);
+            throw new BookingOverlapException(errorMessage);
+        }
+        if (bookingRepository.existsByItemIdAndStatusInAndStartBeforeAndEndAfter(itemId, ACTIVE_STATUSES, end, start)) {
+            String errorMessage = overlapMessage(itemId, start, end);
+            log.warn(errorMessage);
+            throw new BookingOverlapException(errorMessage);
+        }
+    }
+
+    private static String overlapMessage(Long itemId, LocalDateTime start, LocalDateTime end) {
+        return String.format("Вещь с id %d уже забронирована на период с %s по %s", itemId, start, end);
+    }
+
+    private Booking saveIfFree(Booking booking, UUID holdId) {
+        Long itemId = booking.getItem().getId();
+        ensureFree(itemId, booking.getStart(), booking.getEnd(), holdId);
+        Booking saved;
+        try {
+            saved = bookingRepository.saveAndFlush(booking);
+        } catch (DataIntegrityViolationException e) {
+            if (!String.valueOf(e.getMostSpecificCause().getMessage()).contains(OVERLAP_CONSTRAINT)) {
+                throw e;
+            }
+            String errorMessage = overlapMessage(itemId, booking.getStart(), booking.getEnd());
+            log.warn(errorMessage);
+            throw new BookingOverlapException(errorMessage);
+        }
+        itemOccupancyIndex.add(itemId, saved.getStart(), saved.getEnd());
+        outboxService.publish(BookingEventType.CREATED, List.of(saved));
+        return saved;
+    }
+
+    public List<BookingBatchResultDto> createAll(Long userId, List<BookingCreateDto> bookingCreateDtos) {
+        User user = userService.getUserIfExistOrElseThrow(userId);
+        Set<Long> itemIds = bookingCreateDtos.stream()
+                .map(BookingCreateDto::getItemId)
+                .collect(Collectors.toSet());
+        Map<Long, Item> items = itemService.getItemsByIds(itemIds);
+        List<BookingBatchResultDto> results = itemLockStripes.withLocks(itemIds, () -> {
+            try {
+                return transactionTemplate.execute(status -> saveAllIfFree(user, items, bookingCreateDtos));
+            } catch (BookingOverlapException e) {
+                log.warn("{}, сохраняем бронирования пакета по одному", e.getMessage());
+                return saveEachIfFree(user, items, bookingCreateDtos);
+            }
+        });
+        log.info("Пакетное создание бронирований пользователем с id {}: создано {} из {}", userId,
+                results.stream().filter(r -> r.getBooking() != null).count(), results.size());
+        return results;
+    }
+
+    private List<BookingBatchResultDto> saveEachIfFree(User user, Map<Long, Item> items,
+                                                       List<BookingCreateDto> bookingCreateDtos) {
+        List<BookingBatchResultDto> results = new ArrayList<>();
+        for (int i = 0; i < bookingCreateDtos.size(); i++) {
+            BookingCreateDto dto = bookingCreateDtos.get(i);
+            BookingBatchResultDto result;
+            try {
+                result = transactionTemplate.execute(status -> saveAllIfFree(user, items, List.of(dto)).getFirst());
+            } catch (BookingOverlapException e) {
+                result = new BookingBatchResultDto(i, null,
+                        overlapMessage(dto.getItemId(), dto.getStart(), dto.getEnd()));
+            }
+            result.setIndex(i);
+            results.add(result);
+        }
+        return results;
     }
 
+    private List<BookingBatchResultDto> saveAllIfFree(User user, Map<Long, Item> items,
+                                                      List<BookingCreateDto> bookingCreateDtos) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime from = bookingCreateDtos.stream().map(BookingCreateDto::getStart)
+                .min(Comparator.naturalOrder()).orElseThrow();
+        LocalDateTime to = bookingCreateDtos.stream().map(BookingCreateDto::getEnd)
+                .max(Comparator.naturalOrder()).orElseThrow();
+        Map<Long, List<Booking>> taken = bookingRepository
+                .findByItemIdInAndStatusInAndStartBeforeAndEndAfter(items.keySet(), ACTIVE_STATUSES, to, from)
+                .stream()
+                .collect(Collectors.groupingBy(b -> b.getItem().getId()));
+
+        BookingBatchResultDto[] results = new BookingBatchResultDto[bookingCreateDtos.size()];
+        List<Booking> toSave = new ArrayList<>();
+        List<Integer> toSaveIndexes = new ArrayList<>();
+        for (int i = 0; i < bookingCreateDtos.size(); i++) {
+            BookingCreateDto dto = bookingCreateDtos.get(i);
+            Item item = items.get(dto.getItemId());
+            if (item == null) {
+                results[i] = new BookingBatchResultDto(i, null, "Вещь с id " + dto.getItemId() + " не существует");
+            } else if (!item.getAvailable()) {
+                results[i] = new BookingBatchResultDto(i, null,
+                        String.format("Вещь с id %d недоступна для бронирования", item.getId()));
+            } else {
+                Booking booking = BookingMapper.dtoToBooking(dto, user, item);
+                List<Booking> itemBookings = taken.computeIfAbsent(item.getId(), id -> new ArrayList<>());
+                if (itemBookings.stream().anyMatch(b -> b.getStart().isBefore(booking.getEnd())
+                        && b.getEnd().isAfter(booking.getStart()))) {
+                    results[i] = new BookingBatchResultDto(i, null,
+                            overlapMessage(item.getId(), booking.getStart(), booking.getEnd()));
+                } else if (bookingHoldWheel.isHeld(item.getId(), booking.getStart(), booking.getEnd(), null, now)) {
+                    results[i] = new BookingBatchResultDto(i, null,
+                            String.format("Вещь с id %d временно зарезервирована на период с %s по %s",
+                                    item.getId(), booking.getStart(), booking.getEnd()));
+                } else {
+                    itemBookings.add(booking);
+                    toSave.add(booking);
+                    toSaveIndexes.add(i);
+                }
+            }
+        }
+
+        List<Booking> saved;
+        try {
+            saved = bookingRepository.saveAllAndFlush(toSave);
+        } catch (DataIntegrityViolationException e) {
+            if (!String.valueOf(e.getMostSpecificCause().getMessage()).contains(OVERLAP_CONSTRAINT)) {
+                throw e;
+            }
+            String errorMessage = "Пакет пересекается с бронированиями, созданными параллельно";
+            log.warn(errorMessage);
+            throw new BookingOverlapException(errorMessage);
+        }
+        for (int j = 0; j < saved.size(); j++) {
+            Booking booking = saved.get(j);
+            itemOccupancyIndex.add(booking.getItem().getId(), booking.getStart(), booking.getEnd());
+            int index = toSaveIndexes.get(j);
+            results[index] = new BookingBatchResultDto(index, BookingMapper.bookingToDto(booking), null);
+        }
+        if (!saved.isEmpty()) {
+            outboxService.publish(BookingEventType.CREATED, saved);
+        }
+        return Arrays.asList(results);
+    }
+
+    @Transactional
     public BookingResponseDto approveByOwner(Long userId, Long bookingId, boolean approved) {
         Booking booking = getBookingIfExistOrElseThrow(bookingId);
         if (!booking.getStatus().equals(Status.WAITING)) {
@@ -142,12 +366,76 @@ public class BookingService {
             log.warn(errorMessage);
             throw new UserNotOwnerException(errorMessage);
         }
+        Status status = approved ? Status.APPROVED : Status.REJECTED;
+        if (bookingRepository.updateStatusIfWaiting(List.of(bookingId), status) == 0) {
+            String errorMessage = String.format("Статус бронирования с id %d уже изменён другим запросом", bookingId);
+            log.warn(errorMessage);
+            throw new ValidationException(errorMessage);
+        }
+        booking.setStatus(status);
         if (approved) {
-            booking.setStatus(Status.APPROVED);
+            itemBookingSummaryService.recordApproved(List.of(booking));
         } else {
-            booking.setStatus(Status.REJECTED);
+            itemOccupancyIndex.invalidate(itemId);
+        }
+        outboxService.publish(approved ? BookingEventType.APPROVED : BookingEventType.REJECTED, List.of(booking));
+        return BookingMapper.bookingToDto(booking);
+    }
+
+    @Transactional
+    public List<BookingApprovalResultDto> approveAllByOwner(Long userId, BookingApprovalDto approvalDto) {
+        List<Long> bookingIds = approvalDto.getBookingIds().stream().distinct().toList();
+        Status status = approvalDto.getApproved() ? Status.APPROVED : Status.REJECTED;
+        Map<Long, BookingOwnership> found = bookingRepository.findOwnershipByIdIn(bookingIds).stream()
+                .collect(Collectors.toMap(BookingOwnership::getBookingId, Function.identity()));
+        List<Long> waiting = bookingIds.stream()
+                .filter(id -> found.containsKey(id) && found.get(id).getOwnerId().equals(userId)
+                        && found.get(id).getStatus() == Status.WAITING)
+                .toList();
+        List<Long> transitioned = new ArrayList<>();
+        List<Long> changedConcurrently = new ArrayList<>();
+        for (Long id : waiting) {
+            if (bookingRepository.updateStatusIfWaiting(List.of(id), status) == 1) {
+                transitioned.add(id);
+            } else {
+                changedConcurrently.add(id);
+            }
+        }
+        Map<Long, Status> currentStatuses = changedConcurrently.isEmpty() ? Map.of()
+                : bookingRepository.findOwnershipByIdIn(changedConcurrently).stream()
+                .collect(Collectors.toMap(BookingOwnership::getBookingId, BookingOwnership::getStatus));
+        if (!transitioned.isEmpty()) {
+            List<Booking> updated = bookingRepository.findAllById(transitioned);
+            if (status == Status.APPROVED) {
+                itemBookingSummaryService.recordApproved(updated);
+                outboxService.publish(BookingEventType.APPROVED, updated);
+            } else {
+                updated.forEach(b -> itemOccupancyIndex.invalidate(b.getItem().getId()));
+                outboxService.publish(BookingEventType.REJECTED, updated);
+            }
+        }
+        log.info("Владелец с id {} изменил статус {} из {} бронирований на {}", userId,
+                transitioned.size(), bookingIds.size(), status);
+        return bookingIds.stream()
+                .map(id -> toApprovalResult(id, userId, found.get(id), transitioned.contains(id),
+                        currentStatuses.get(id), status))
+                .toList();
+    }
+
+    private BookingApprovalResultDto toApprovalResult(Long bookingId, Long userId, BookingOwnership ownership,
+                                                      boolean transitioned, Status currentStatus, Status status) {
+        if (ownership == null) {
+            return new BookingApprovalResultDto(bookingId, BookingApprovalOutcome.NOT_FOUND, null);
+        }
+        if (!ownership.getOwnerId().equals(userId)) {
+            return new BookingApprovalResultDto(bookingId, BookingApprovalOutcome.NOT_OWNER, null);
+        }
+        if (ownership.getStatus() != Status.WAITING) {
+            return new BookingApprovalResultDto(bookingId, BookingApprovalOutcome.NOT_WAITING, ownership.getStatus());
+        }
+        if (!transitioned) {
+            return new BookingApprovalResultDto(bookingId, BookingApprovalOutcome.NOT_WAITING, currentStatus);
         }
-        Booking updatedBooking = bookingRepository.save(booking);
-        return BookingMapper.bookingToDto(updatedBooking);
+        return new BookingApprovalResultDto(bookingId, BookingApprovalOutcome.UPDATED, status);
     }
 }
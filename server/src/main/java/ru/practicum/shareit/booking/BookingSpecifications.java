@@ -0,0 +1,42 @@
+package ru.practicum.shareit.booking;
+
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.jpa.domain.Specification;
+import ru.practicum.shareit.booking.model.Booking;
+
+import java.time.LocalDateTime;
+
+public class BookingSpecifications {
+
+    public static Specification<Booking> byBooker(Long bookerId) {
+        return (root, query, cb) -> cb.equal(root.get("booker").get("id"), bookerId);
+    }
+
+    public static Specification<Booking> byItemOwner(Long ownerId) {
+        return (root, query, cb) -> cb.equal(root.join("item").get("owner").get("id"), ownerId);
+    }
+
+    public static Specification<Booking> inState(State state, LocalDateTime now) {
+        return (root, query, cb) -> switch (state) {
+            case ALL -> null;
+            case CURRENT -> cb.and(cb.lessThan(root.get("start"), now), cb.greaterThan(root.get("end"), now));
+            case PAST -> cb.and(cb.lessThan(root.get("start"), now), cb.lessThan(root.get("end"), now));
+            case FUTURE -> cb.greaterThan(root.get("start"), now);
+            case WAITING -> cb.equal(root.get("status"), Status.WAITING);
+            case REJECTED -> cb.equal(root.get("status"), Status.REJECTED);
+        };
+    }
+
+    public static Specification<Booking> after(Long anchorId, Specification<Booking> listing) {
+        return (root, query, cb) -> {
+            Subquery<LocalDateTime> anchorStart = query.subquery(LocalDateTime.class);
+            Root<Booking> anchor = anchorStart.from(Booking.class);
+            anchorStart.select(anchor.get("start"))
+                    .where(cb.equal(anchor.get("id"), anchorId), listing.toPredicate(anchor, query, cb));
+            return cb.or(
+                    cb.lessThan(root.get("start"), anchorStart),
+                    cb.and(cb.equal(root.get("start"), anchorStart), cb.lessThan(root.get("id"), anchorId)));
+        };
+    }
+}
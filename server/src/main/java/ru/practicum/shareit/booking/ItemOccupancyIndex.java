@@ -0,0 +1,109 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.dto.BookingPeriod;
+import ru.practicum.shareit.item.dto.ItemCalendarSlotDto;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+@Component
+@RequiredArgsConstructor
+public class ItemOccupancyIndex {
+    private static final List<Status> ACTIVE_STATUSES = List.of(Status.WAITING, Status.APPROVED);
+
+    private final BookingRepository bookingRepository;
+    private final ItemLockStripes itemLockStripes;
+    private final ItemOccupancyProperties properties;
+    private final Map<Long, Occupancy> occupancyByItem = new ConcurrentHashMap<>();
+
+    public void add(Long itemId, LocalDateTime start, LocalDateTime end) {
+        afterCommit(() -> {
+            Occupancy occupancy = occupancyByItem.get(itemId);
+            if (occupancy != null) {
+                toDayMasks(start, end).forEach((day, mask) -> occupancy.busyHours().merge(day, mask, (a, b) -> a | b));
+            }
+        });
+    }
+
+    public void invalidate(Long itemId) {
+        afterCommit(() -> itemLockStripes.withLock(itemId, () -> occupancyByItem.remove(itemId)));
+    }
+
+    public List<ItemCalendarSlotDto> getCalendar(Long itemId, LocalDateTime from, LocalDateTime to) {
+        Map<Long, Integer> busyHours = getBusyHours(itemId);
+        List<ItemCalendarSlotDto> slots = new ArrayList<>();
+        for (LocalDateTime hour = from.truncatedTo(ChronoUnit.HOURS); hour.isBefore(to); hour = hour.plusHours(1)) {
+            boolean busy = (busyHours.getOrDefault(hour.toLocalDate().toEpochDay(), 0) & (1 << hour.getHour())) != 0;
+            LocalDateTime slotEnd = hour.plusHours(1).isAfter(to) ? to : hour.plusHours(1);
+            if (!slots.isEmpty() && slots.getLast().isBusy() == busy) {
+                slots.getLast().setEnd(slotEnd);
+            } else {
+                slots.add(new ItemCalendarSlotDto(hour.isBefore(from) ? from : hour, slotEnd, busy));
+            }
+        }
+        return slots;
+    }
+
+    private Map<Long, Integer> getBusyHours(Long itemId) {
+        Occupancy occupancy = occupancyByItem.get(itemId);
+        return occupancy != null && occupancy.isFresh(System.nanoTime()) ? occupancy.busyHours()
+                : itemLockStripes.withLock(itemId, () -> load(itemId));
+    }
+
+    private Map<Long, Integer> load(Long itemId) {
+        long now = System.nanoTime();
+        Occupancy occupancy = occupancyByItem.get(itemId);
+        if (occupancy != null && occupancy.isFresh(now)) {
+            return occupancy.busyHours();
+        }
+        ConcurrentSkipListMap<Long, Integer> loaded = new ConcurrentSkipListMap<>();
+        for (BookingPeriod period : bookingRepository.findPeriodsByItemIdAndStatusIn(itemId, ACTIVE_STATUSES)) {
+            toDayMasks(period.getStart(), period.getEnd()).forEach((day, mask) -> loaded.merge(day, mask, (a, b) -> a | b));
+        }
+        if (occupancyByItem.size() >= properties.getMaxItems()) {
+            occupancyByItem.values().removeIf(cached -> !cached.isFresh(now));
+            if (occupancyByItem.size() >= properties.getMaxItems()) {
+                occupancyByItem.keySet().stream().findAny().ifPresent(occupancyByItem::remove);
+            }
+        }
+        occupancyByItem.put(itemId, new Occupancy(loaded, now + properties.getTtl().toNanos()));
+        return loaded;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static Map<Long, Integer> toDayMasks(LocalDateTime start, LocalDateTime end) {
+        Map<Long, Integer> masks = new LinkedHashMap<>();
+        for (LocalDateTime hour = start.truncatedTo(ChronoUnit.HOURS); hour.isBefore(end); hour = hour.plusHours(1)) {
+            masks.merge(hour.toLocalDate().toEpochDay(), 1 << hour.getHour(), (a, b) -> a | b);
+        }
+        return masks;
+    }
+
+    private record Occupancy(ConcurrentSkipListMap<Long, Integer> busyHours, long expiresAt) {
+        boolean isFresh(long now) {
+            return expiresAt - now > 0;
+        }
+    }
+}
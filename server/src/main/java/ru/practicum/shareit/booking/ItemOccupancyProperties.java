@@ -0,0 +1,15 @@
+package ru.practicum.shareit.booking;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.occupancy")
+public class ItemOccupancyProperties {
+    private Duration ttl = Duration.ofMinutes(1);
+    private int maxItems = 10_000;
+}
@@ -0,0 +1,18 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.practicum.shareit.booking.BookingApprovalOutcome;
+import ru.practicum.shareit.booking.Status;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BookingApprovalResultDto {
+    private Long bookingId;
+
+    private BookingApprovalOutcome outcome;
+
+    private Status status;
+}
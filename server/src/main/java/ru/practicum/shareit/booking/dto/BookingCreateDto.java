@@ -3,10 +3,12 @@ package ru.practicum.shareit.booking.dto;
 import lombok.Data;
 
 import java.time.LocalDateTime;
+import java.util.UUID;
 
 @Data
 public class BookingCreateDto {
     private Long itemId;
     private LocalDateTime start;
     private LocalDateTime end;
+    private UUID holdId;
 }
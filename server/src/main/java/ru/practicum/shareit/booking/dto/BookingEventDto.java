@@ -0,0 +1,25 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.practicum.shareit.booking.Status;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BookingEventDto {
+    private Long bookingId;
+
+    private Long itemId;
+
+    private Long bookerId;
+
+    private Status status;
+
+    private LocalDateTime start;
+
+    private LocalDateTime end;
+}
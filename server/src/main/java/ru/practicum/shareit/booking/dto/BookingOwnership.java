@@ -0,0 +1,17 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.practicum.shareit.booking.Status;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BookingOwnership {
+    private Long bookingId;
+
+    private Long ownerId;
+
+    private Status status;
+}
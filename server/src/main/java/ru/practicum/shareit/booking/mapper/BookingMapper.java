@@ -3,6 +3,8 @@ package ru.practicum.shareit.booking.mapper;
 import lombok.RequiredArgsConstructor;
 import ru.practicum.shareit.booking.Status;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.dto.BookingHoldDto;
+import ru.practicum.shareit.booking.model.BookingHold;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
 import ru.practicum.shareit.item.mapper.ItemMapper;
@@ -33,4 +35,8 @@ public class BookingMapper {
         dto.setEnd(booking.getEnd());
         return dto;
     }
+
+    public static BookingHoldDto holdToDto(BookingHold hold) {
+        return new BookingHoldDto(hold.getId(), hold.getItemId(), hold.getStart(), hold.getEnd(), hold.getExpiresAt());
+    }
 }
@@ -0,0 +1,26 @@
+package ru.practicum.shareit.booking.model;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Getter
+@RequiredArgsConstructor
+public class BookingHold {
+    private final UUID id;
+    private final Long itemId;
+    private final Long userId;
+    private final LocalDateTime start;
+    private final LocalDateTime end;
+    private final LocalDateTime expiresAt;
+
+    public boolean overlaps(LocalDateTime start, LocalDateTime end) {
+        return this.start.isBefore(end) && this.end.isAfter(start);
+    }
+
+    public boolean isExpired(LocalDateTime now) {
+        return !expiresAt.isAfter(now);
+    }
+}
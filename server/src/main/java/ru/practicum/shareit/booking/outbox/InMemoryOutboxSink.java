@@ -0,0 +1,32 @@
+package ru.practicum.shareit.booking.outbox;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+@Component
+@ConditionalOnProperty(prefix = "shareit.outbox", name = "in-memory-sink", havingValue = "true")
+public class InMemoryOutboxSink implements OutboxEventHandler {
+    private final BlockingQueue<OutboxEvent> events;
+
+    public InMemoryOutboxSink(OutboxProperties properties) {
+        this.events = new LinkedBlockingQueue<>(properties.getInMemorySinkCapacity());
+    }
+
+    @Override
+    public void handle(OutboxEvent event) {
+        if (!events.offer(event)) {
+            throw new IllegalStateException("Очередь событий заполнена, событие " + event.getId() + " не принято");
+        }
+    }
+
+    public List<OutboxEvent> drain() {
+        List<OutboxEvent> drained = new ArrayList<>();
+        events.drainTo(drained);
+        return drained;
+    }
+}
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.booking.outbox;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "shareit.outbox", name = "log-events", havingValue = "true", matchIfMissing = true)
+public class LoggingOutboxEventHandler implements OutboxEventHandler {
+
+    @Override
+    public void handle(OutboxEvent event) {
+        log.info("Событие {} {} для бронирования {}: {}", event.getId(), event.getType(), event.getAggregateId(),
+                event.getPayload());
+    }
+}
@@ -0,0 +1,6 @@
+package ru.practicum.shareit.booking.outbox;
+
+public interface OutboxEventHandler {
+
+    void handle(OutboxEvent event);
+}
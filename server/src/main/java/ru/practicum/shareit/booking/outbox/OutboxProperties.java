@@ -0,0 +1,20 @@
+package ru.practicum.shareit.booking.outbox;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.outbox")
+public class OutboxProperties {
+    private int batchSize = 100;
+    private int maxBatchesPerRun = 10;
+    private Duration retryDelay = Duration.ofSeconds(1);
+    private Duration maxRetryDelay = Duration.ofMinutes(5);
+    private boolean logEvents = true;
+    private boolean inMemorySink = false;
+    private int inMemorySinkCapacity = 1000;
+}
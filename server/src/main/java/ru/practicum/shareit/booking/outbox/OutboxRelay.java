@@ -0,0 +1,87 @@
+package ru.practicum.shareit.booking.outbox;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Slf4j
+@Component
+public class OutboxRelay {
+    private final OutboxRepository outboxRepository;
+    private final List<OutboxEventHandler> handlers;
+    private final OutboxProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter dispatched;
+    private final Counter failed;
+    private final AtomicLong lagMillis = new AtomicLong();
+
+    public OutboxRelay(OutboxRepository outboxRepository, List<OutboxEventHandler> handlers,
+                       OutboxProperties properties, TransactionTemplate transactionTemplate,
+                       MeterRegistry meterRegistry) {
+        this.outboxRepository = outboxRepository;
+        this.handlers = handlers;
+        this.properties = properties;
+        this.transactionTemplate = transactionTemplate;
+        this.dispatched = meterRegistry.counter("shareit.outbox.dispatched");
+        this.failed = meterRegistry.counter("shareit.outbox.failed");
+        Gauge.builder("shareit.outbox.lag", lagMillis, AtomicLong::get)
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        if (handlers.isEmpty()) {
+            log.warn("Обработчики событий outbox не настроены, события будут накапливаться в таблице");
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.outbox.poll-interval:PT1S}",
+            initialDelayString = "${shareit.outbox.poll-interval:PT1S}")
+    public void relay() {
+        for (int i = 0; !handlers.isEmpty() && i < properties.getMaxBatchesPerRun(); i++) {
+            Integer claimed = transactionTemplate.execute(status -> relayBatch());
+            if (claimed == null || claimed < properties.getBatchSize()) {
+                break;
+            }
+        }
+        LocalDateTime oldest = outboxRepository.findOldestCreatedAt();
+        lagMillis.set(oldest == null ? 0 : Duration.between(oldest, LocalDateTime.now()).toMillis());
+    }
+
+    private int relayBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxEvent> batch = outboxRepository.findAvailableSkipLocked(now,
+                PageRequest.of(0, properties.getBatchSize()));
+        List<OutboxEvent> delivered = new ArrayList<>();
+        int failures = 0;
+        for (OutboxEvent event : batch) {
+            try {
+                handlers.forEach(handler -> handler.handle(event));
+                delivered.add(event);
+            } catch (RuntimeException e) {
+                event.setAttempts(event.getAttempts() + 1);
+                event.setAvailableAt(now.plus(retryDelay(event.getAttempts())));
+                failures++;
+                log.warn("Не удалось обработать событие {} {} для бронирования {}, попытка {}: {}", event.getId(),
+                        event.getType(), event.getAggregateId(), event.getAttempts(), e.getMessage());
+            }
+        }
+        outboxRepository.deleteAllInBatch(delivered);
+        dispatched.increment(delivered.size());
+        failed.increment(failures);
+        return failures > 0 ? 0 : batch.size();
+    }
+
+    private Duration retryDelay(int attempts) {
+        Duration delay = properties.getRetryDelay().multipliedBy(1L << Math.min(attempts - 1, 20));
+        return delay.compareTo(properties.getMaxRetryDelay()) > 0 ? properties.getMaxRetryDelay() : delay;
+    }
+}
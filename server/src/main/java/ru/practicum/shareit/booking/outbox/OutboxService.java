@@ -0,0 +1,38 @@
+package ru.practicum.shareit.booking.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingEventDto;
+import ru.practicum.shareit.booking.model.Booking;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+@Service
+@RequiredArgsConstructor
+public class OutboxService {
+    private final OutboxRepository outboxRepository;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publish(BookingEventType type, Collection<Booking> bookings) {
+        LocalDateTime now = LocalDateTime.now();
+        outboxRepository.saveAll(bookings.stream()
+                .map(b -> new OutboxEvent(null, type, b.getId(), toPayload(b), now, now, 0))
+                .toList());
+    }
+
+    private String toPayload(Booking booking) {
+        BookingEventDto event = new BookingEventDto(booking.getId(), booking.getItem().getId(),
+                booking.getBooker().getId(), booking.getStatus(), booking.getStart(), booking.getEnd());
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Не удалось сериализовать событие бронирования " + booking.getId(), e);
+        }
+    }
+}
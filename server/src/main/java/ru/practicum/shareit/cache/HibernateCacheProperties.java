@@ -0,0 +1,15 @@
+package ru.practicum.shareit.cache;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.net.URI;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.hibernate-cache")
+public class HibernateCacheProperties {
+    private boolean enabled = false;
+    private URI config = URI.create("classpath:hibernate-cache.conf");
+}
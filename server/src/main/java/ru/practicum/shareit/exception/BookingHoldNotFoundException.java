@@ -0,0 +1,7 @@
+package ru.practicum.shareit.exception;
+
+public class BookingHoldNotFoundException extends RuntimeException {
+    public BookingHoldNotFoundException(String message) {
+        super(message);
+    }
+}
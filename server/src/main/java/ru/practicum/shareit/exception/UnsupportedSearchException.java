@@ -0,0 +1,7 @@
+package ru.practicum.shareit.exception;
+
+public class UnsupportedSearchException extends RuntimeException {
+    public UnsupportedSearchException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package ru.practicum.shareit.exception;
+
+public class WrongPaginationException extends RuntimeException {
+    public WrongPaginationException(String message) {
+        super(message);
+    }
+}
@@ -2,6 +2,7 @@ package ru.practicum.shareit.handler;
 
 import jakarta.validation.ConstraintViolationException;
 import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
@@ -30,12 +31,37 @@ public class GlobalExceptionHandler {
         return ApiError.builder().error(e.getMessage()).errorCode(HttpStatus.NOT_FOUND.value()).build();
     }
 
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.NOT_FOUND)
+    public ApiError handleBookingHoldNotFound(BookingHoldNotFoundException e) {
+        return ApiError.builder().error(e.getMessage()).errorCode(HttpStatus.NOT_FOUND.value()).build();
+    }
+
     @ExceptionHandler
     @ResponseStatus(HttpStatus.CONFLICT)
     public ApiError handleValidation(ValidationException e) {
         return ApiError.builder().error(e.getMessage()).errorCode(HttpStatus.CONFLICT.value()).build();
     }
 
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ApiError handleBookingOverlap(BookingOverlapException e) {
+        return ApiError.builder().error(e.getMessage()).errorCode(HttpStatus.CONFLICT.value()).build();
+    }
+
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ApiError handleIdempotencyConflict(IdempotencyConflictException e) {
+        return ApiError.builder().error(e.getMessage()).errorCode(HttpStatus.CONFLICT.value()).build();
+    }
+
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ApiError handleOptimisticLock(ObjectOptimisticLockingFailureException e) {
+        return ApiError.builder().error("Данные были изменены другим запросом, повторите попытку")
+                .errorCode(HttpStatus.CONFLICT.value()).build();
+    }
+
     @ExceptionHandler
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ApiError handleArgumentNotValid(MethodArgumentNotValidException e) {
@@ -77,5 +103,16 @@ public class GlobalExceptionHandler {
     public ApiError handleWrongBookingDatesException(WrongBookingDatesException e) {
         return ApiError.builder().error(e.getMessage()).errorCode(HttpStatus.BAD_REQUEST.value()).build();
     }
-}
 
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ApiError handleWrongPagination(WrongPaginationException e) {
+        return ApiError.builder().error(e.getMessage()).errorCode(HttpStatus.BAD_REQUEST.value()).build();
+    }
+
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ApiError handleUnsupportedSearch(UnsupportedSearchException e) {
+        return ApiError.builder().error(e.getMessage()).errorCode(HttpStatus.BAD_REQUEST.value()).build();
+    }
+}
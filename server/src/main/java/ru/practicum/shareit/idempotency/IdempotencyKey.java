@@ -0,0 +1,31 @@
+package ru.practicum.shareit.idempotency;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Getter
+@Setter
+@ToString
+@Table(name = "idempotency_keys", indexes = {
+        @Index(name = "idempotency_keys_created_idx", columnList = "created_at")
+})
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+public class IdempotencyKey {
+    @EmbeddedId
+    @EqualsAndHashCode.Include
+    private IdempotencyKeyId id;
+
+    @Column(name = "resource_id", nullable = false)
+    private Long resourceId;
+
+    @Column(name = "request_hash", nullable = false, length = 64)
+    private String requestHash;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
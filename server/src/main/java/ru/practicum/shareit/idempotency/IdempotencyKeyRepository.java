@@ -0,0 +1,23 @@
+package ru.practicum.shareit.idempotency;
+
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.time.LocalDateTime;
+
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, IdempotencyKeyId> {
+
+    @Modifying(flushAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "idempotency_keys"))
+    @Query(value = "INSERT INTO idempotency_keys (user_id, scope, idempotency_key, resource_id, request_hash, created_at) " +
+            "VALUES (:userId, :scope, :key, :resourceId, :requestHash, :createdAt)", nativeQuery = true)
+    void insert(Long userId, String scope, String key, Long resourceId, String requestHash, LocalDateTime createdAt);
+
+    @Modifying
+    @Query("delete from IdempotencyKey k where k.createdAt < :before")
+    int deleteCreatedBefore(LocalDateTime before);
+}
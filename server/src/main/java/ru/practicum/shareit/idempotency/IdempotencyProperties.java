@@ -0,0 +1,14 @@
+package ru.practicum.shareit.idempotency;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.idempotency")
+public class IdempotencyProperties {
+    private Duration retention = Duration.ofDays(7);
+}
@@ -0,0 +1,6 @@
+package ru.practicum.shareit.idempotency;
+
+public enum IdempotencyScope {
+    BOOKING,
+    ITEM
+}
@@ -0,0 +1,77 @@
+package ru.practicum.shareit.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.exception.IdempotencyConflictException;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class IdempotencyService {
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final IdempotencyProperties properties;
+    private final ObjectMapper objectMapper;
+
+    public Optional<Long> findResourceId(Long userId, IdempotencyScope scope, String key, Object request) {
+        if (key == null) {
+            return Optional.empty();
+        }
+        return idempotencyKeyRepository.findById(new IdempotencyKeyId(userId, scope, key))
+                .map(stored -> {
+                    if (!stored.getRequestHash().equals(requestHash(request))) {
+                        String errorMessage = String.format(
+                                "Ключ идемпотентности %s уже использован для запроса с другими данными", key);
+                        log.warn(errorMessage);
+                        throw new IdempotencyConflictException(errorMessage);
+                    }
+                    return stored.getResourceId();
+                });
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void remember(Long userId, IdempotencyScope scope, String key, Object request, Long resourceId) {
+        if (key == null) {
+            return;
+        }
+        try {
+            idempotencyKeyRepository.insert(userId, scope.name(), key, resourceId, requestHash(request),
+                    LocalDateTime.now());
+        } catch (DataIntegrityViolationException e) {
+            String errorMessage = String.format("Запрос с ключом идемпотентности %s уже обрабатывается", key);
+            log.warn(errorMessage);
+            throw new IdempotencyConflictException(errorMessage);
+        }
+    }
+
+    private String requestHash(Object request) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest);
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Не удалось вычислить хэш запроса", e);
+        }
+    }
+
+    @Transactional
+    @Scheduled(fixedDelayString = "${shareit.idempotency.purge-interval:PT1H}",
+            initialDelayString = "${shareit.idempotency.purge-interval:PT1H}")
+    public void purgeExpired() {
+        int deleted = idempotencyKeyRepository.deleteCreatedBefore(LocalDateTime.now().minus(properties.getRetention()));
+        if (deleted > 0) {
+            log.info("Удалено {} устаревших ключей идемпотентности", deleted);
+        }
+    }
+}
@@ -2,11 +2,14 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemCalendarSlotDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemWithDateDto;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Slf4j
@@ -28,16 +31,40 @@ public class ItemController {
         return itemService.getItemById(itemId);
     }
 
+    @GetMapping("/{itemId}/calendar")
+    public List<ItemCalendarSlotDto> getCalendar(@PathVariable Long itemId,
+                                                 @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                 @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        log.info("Получен HTTP-запрос на календарь занятости вещи с id {} с {} по {}", itemId, from, to);
+        return itemService.getCalendar(itemId, from, to);
+    }
+
     @GetMapping("/search")
-    public List<ItemDto> getItemsBySearch(@RequestParam String text) {
-        log.info("Получен HTTP-запрос на поиск вещи");
-        return itemService.getItemsBySearch(text);
+    public List<ItemDto> getItemsBySearch(@RequestParam String text,
+                                          @RequestParam(defaultValue = "0") int from,
+                                          @RequestParam(defaultValue = "20") int size,
+                                          @RequestParam(required = false) Long after,
+                                          @RequestParam(defaultValue = "false") boolean fuzzy,
+                                          @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+                                          @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
+        log.info("Получен HTTP-запрос на поиск вещи, from = {}, size = {}, after = {}, fuzzy = {}, свободна с {} по {}",
+                from, size, after, fuzzy, start, end);
+        return fuzzy ? itemService.getItemsByFuzzySearch(text, from, size, after, start, end)
+                : itemService.getItemsBySearch(text, from, size, after, start, end);
+    }
+
+    @GetMapping("/suggest")
+    public List<String> getNameSuggestions(@RequestParam String prefix, @RequestParam(defaultValue = "10") int size) {
+        log.info("Получен HTTP-запрос на подсказки названий вещей по префиксу {}", prefix);
+        return itemService.getNameSuggestions(prefix, size);
     }
 
     @PostMapping
-    public ItemDto create(@RequestHeader("X-Sharer-User-Id") Long userId, @RequestBody ItemDto itemDto) {
+    public ItemDto create(@RequestHeader("X-Sharer-User-Id") Long userId,
+                          @RequestHeader(name = "Idempotency-Key", required = false) String idempotencyKey,
+                          @RequestBody ItemDto itemDto) {
         log.info("Получен HTTP-запрос на создание вещи: {}", itemDto);
-        return itemService.create(userId, itemDto);
+        return itemService.create(userId, itemDto, idempotencyKey);
     }
 
     @PatchMapping("/{itemId}")
@@ -1,18 +1,57 @@
 package ru.practicum.shareit.item;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface ItemRepository extends JpaRepository<Item, Long> {
-    List<Item> findByAvailableTrueAndNameIgnoreCaseContainingOrDescriptionIgnoreCaseContaining(String text1, String text2);
+    String FREE_BETWEEN = "AND (CAST(:start AS timestamp) IS NULL OR NOT EXISTS (SELECT 1 FROM booking_slots s " +
+            "WHERE s.item_id = items.id " +
+            "AND tsrange(s.start_date, s.end_date) && tsrange(CAST(:start AS timestamp), CAST(:end AS timestamp)))) ";
+
+    @Query("select i from Item i " +
+            "where i.available = true and i.id > :afterId " +
+            "and (lower(i.name) like :pattern escape '\\' or lower(i.description) like :pattern escape '\\') " +
+            "and (:start is null or not exists (select b.id from Booking b where b.item = i " +
+            "and b.status in (ru.practicum.shareit.booking.Status.APPROVED, ru.practicum.shareit.booking.Status.WAITING) " +
+            "and b.start < :end and b.end > :start)) " +
+            "order by i.id")
+    Slice<Item> findAvailableBySearch(String pattern, long afterId, LocalDateTime start, LocalDateTime end,
+                                      Pageable pageable);
+
+    @Query(value = "SELECT * FROM items " +
+            "WHERE available = true AND search_vector @@ to_tsquery('simple', :query) " + FREE_BETWEEN +
+            "ORDER BY ts_rank(search_vector, to_tsquery('simple', :query)) DESC, id", nativeQuery = true)
+    Slice<Item> findAvailableByFullText(String query, LocalDateTime start, LocalDateTime end, Pageable pageable);
+
+    @Query(value = "SELECT * FROM items " +
+            "WHERE available = true AND (lower(:text) <% lower(name) OR lower(:text) <% lower(description)) " +
+            "AND greatest(word_similarity(lower(:text), lower(name)), " +
+            "word_similarity(lower(:text), lower(description))) >= :threshold " + FREE_BETWEEN +
+            "ORDER BY greatest(word_similarity(lower(:text), lower(name)), " +
+            "word_similarity(lower(:text), lower(description))) DESC, id", nativeQuery = true)
+    Slice<Item> findAvailableBySimilarity(String text, double threshold, LocalDateTime start, LocalDateTime end,
+                                          Pageable pageable);
+
+    @Query(value = "SELECT set_config('pg_trgm.word_similarity_threshold', CAST(:threshold AS text), true)",
+            nativeQuery = true)
+    String setWordSimilarityThreshold(double threshold);
+
+    List<Item> findByAvailableTrue();
 
     List<Item> findByOwner(User user);
 
+    @Query("select i.id from Item i where i.owner.id = :ownerId")
+    List<Long> findIdsByOwnerId(Long ownerId);
+
     List<Item> findByRequestId(Long requestId);
 
     List<Item> findByRequestIdNotNull();
@@ -2,20 +2,37 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.ItemOccupancyIndex;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.exception.CommentException;
 import ru.practicum.shareit.exception.ItemNotFoundException;
 import ru.practicum.shareit.exception.ItemRequestNotFoundException;
+import ru.practicum.shareit.exception.UnsupportedSearchException;
 import ru.practicum.shareit.exception.UserNotFoundException;
+import ru.practicum.shareit.exception.WrongBookingDatesException;
+import ru.practicum.shareit.exception.WrongPaginationException;
+import ru.practicum.shareit.idempotency.IdempotencyScope;
+import ru.practicum.shareit.idempotency.IdempotencyService;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemCalendarSlotDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemWithDateDto;
 import ru.practicum.shareit.item.mapper.CommentMapper;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemBookingSummary;
+import ru.practicum.shareit.item.model.ItemSnapshot;
+import ru.practicum.shareit.item.search.ItemNameSuggester;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.item.search.SearchMode;
+import ru.practicum.shareit.item.search.SearchProperties;
+import ru.practicum.shareit.item.summary.ItemBookingSummaryService;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
 import ru.practicum.shareit.request.ItemRequestRepository;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.UserService;
@@ -23,64 +40,79 @@ import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class ItemService {
+    private static final int BOOKED_CHECK_CHUNK = 500;
+
     private final ItemRepository itemRepository;
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
     private final UserService userService;
     private final ItemRequestRepository itemRequestRepository;
+    private final SearchProperties searchProperties;
+    private final ItemSearchIndex itemSearchIndex;
+    private final ItemNameSuggester itemNameSuggester;
+    private final ItemBookingSummaryService itemBookingSummaryService;
+    private final ItemOccupancyIndex itemOccupancyIndex;
+    private final IdempotencyService idempotencyService;
+    private final ItemSnapshotCache itemSnapshotCache;
 
     public List<ItemWithDateDto> getAllItems(Long userId) {
         User user = userService.getUserIfExistOrElseThrow(userId);
 
-        Map<Item, List<Booking>> bookedItems = bookingRepository
-                .findAllByItemOwnerIdAndStartAfterOrderByStartDesc(userId, LocalDateTime.now())
-                .stream()
-                .collect(Collectors.groupingBy(Booking::getItem));
         List<Item> allItems = itemRepository.findByOwner(user);
-
-
-        Map<Item, Booking> next = new HashMap<>();
-        Map<Item, Booking> last = new HashMap<>();
-
-        for (Item item : bookedItems.keySet()) {
-            Booking nextBooking = bookedItems.get(item).stream()
-                    .min(Comparator.comparing(Booking::getStart))
-                    .orElse(null);
-            Booking lastBooking = bookedItems.get(item).stream()
-                    .max(Comparator.comparing(Booking::getEnd))
-                    .orElse(null);
-            next.put(item, nextBooking);
-            last.put(item, lastBooking);
-        }
+        Map<Long, ItemBookingSummary> summaries = itemBookingSummaryService
+                .getSummaries(allItems.stream().map(Item::getId).toList());
 
         List<Comment> allItemsComments = commentRepository.findByItemIn(allItems);
-        Map<Item, List<Comment>> itemsCommentsMap = allItemsComments.stream()
-                .collect(Collectors.groupingBy(Comment::getItem));
+        Map<Long, List<Comment>> itemsCommentsMap = allItemsComments.stream()
+                .collect(Collectors.groupingBy(c -> c.getItem().getId()));
         return allItems.stream()
                 .map(i -> ItemMapper.itemToDtoWithDate(i,
-                        CommentMapper.toListDto(itemsCommentsMap.getOrDefault(i, Collections.emptyList())),
-                        next.get(i), last.get(i)))
+                        CommentMapper.toListDto(itemsCommentsMap.getOrDefault(i.getId(), Collections.emptyList())),
+                        summaries.get(i.getId())))
                 .toList();
     }
 
     public ItemWithDateDto getItemById(Long itemId) {
         Item itemById = getItemIfExistOrElseThrow(itemId);
         List<CommentDto> comments = commentRepository.findByItemId(itemId).stream().map(CommentMapper::toDto).toList();
-        return ItemMapper.itemToDtoWithDate(itemById, comments, null, null);
+        return ItemMapper.itemToDtoWithDate(itemById, comments, null);
+    }
+
+    public List<ItemCalendarSlotDto> getCalendar(Long itemId, LocalDateTime from, LocalDateTime to) {
+        getItemIfExistOrElseThrow(itemId);
+        return itemOccupancyIndex.getCalendar(itemId, from, to);
     }
 
     public Item getItemIfExistOrElseThrow(Long itemId) {
-        return itemRepository.findById(itemId)
+        return itemSnapshotCache.get(itemId)
+                .map(ItemSnapshot::toItem)
                 .orElseThrow(() -> new ItemNotFoundException("Вещь с id " + itemId + " не существует"));
     }
 
+    public Map<Long, Item> getItemsByIds(Collection<Long> itemIds) {
+        return itemRepository.findAllById(itemIds).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+    }
+
+    @Transactional
     public ItemDto create(Long userId, ItemDto itemDto) {
+        return create(userId, itemDto, null);
+    }
+
+    @Transactional
+    public ItemDto create(Long userId, ItemDto itemDto, String idempotencyKey) {
+        Optional<Long> replayed = idempotencyService.findResourceId(userId, IdempotencyScope.ITEM, idempotencyKey, itemDto);
+        if (replayed.isPresent()) {
+            log.info("Повтор создания вещи по ключу идемпотентности {}, вещь с id {}", idempotencyKey, replayed.get());
+            return ItemMapper.itemToDto(getItemIfExistOrElseThrow(replayed.get()));
+        }
         User owner = userService.getUserIfExistOrElseThrow(userId);
         ItemRequest request = null;
         if (itemDto.getRequestId() != null) {
@@ -91,12 +123,18 @@ public class ItemService {
         item.setOwner(owner);
         item.setRequest(request);
         Item createdItem = itemRepository.save(item);
+        idempotencyService.remember(userId, IdempotencyScope.ITEM, idempotencyKey, itemDto, createdItem.getId());
+        itemBookingSummaryService.create(createdItem.getId());
+        itemSearchIndex.put(createdItem);
+        itemNameSuggester.put(createdItem);
         return ItemMapper.itemToDto(createdItem);
     }
 
+    @Transactional
     public ItemDto update(ItemDto item, Long itemId, Long userId) {
-        userService.getUserIfExistOrElseThrow(userId);
-        Item existItem = getItemIfExistOrElseThrow(itemId);
+        userService.checkUserExists(userId);
+        Item existItem = itemRepository.findById(itemId)
+                .orElseThrow(() -> new ItemNotFoundException("Вещь с id " + itemId + " не существует"));
         if (!existItem.getOwner().getId().equals(userId)) {
             String errorMessage = String.format("Пользователь с id = %d не является владельцем вещи с itemId = %d", userId, itemId);
             log.warn(errorMessage);
@@ -112,20 +150,140 @@ public class ItemService {
             existItem.setDescription(item.getDescription());
         }
         Item updatedItem = itemRepository.save(existItem);
+        itemSnapshotCache.evict(itemId);
+        itemSearchIndex.put(updatedItem);
+        itemNameSuggester.put(updatedItem);
         return ItemMapper.itemToDto(updatedItem);
     }
 
-    public List<ItemDto> getItemsBySearch(String text) {
-        return itemRepository.findByAvailableTrueAndNameIgnoreCaseContainingOrDescriptionIgnoreCaseContaining(text, text)
-                .stream()
+    public List<ItemDto> getItemsBySearch(String text, int from, int size, Long after,
+                                          LocalDateTime start, LocalDateTime end) {
+        OffsetPageRequest.validate(from, size);
+        validateWindow(start, end);
+        if (searchProperties.getMode() == SearchMode.FULL_TEXT) {
+            rejectCursor(after);
+        }
+        int limit = Math.min(size, searchProperties.getMaxPageSize());
+        Pageable page = OffsetPageRequest.of(after == null ? from : 0, limit);
+        List<Item> items;
+        if (searchProperties.getMode() == SearchMode.FULL_TEXT) {
+            String query = toTsQuery(text);
+            items = query.isEmpty() ? Collections.emptyList()
+                    : itemRepository.findAvailableByFullText(query, start, end, page).getContent();
+        } else if (searchProperties.getMode() == SearchMode.INDEX) {
+            List<Long> candidates = itemSearchIndex.search(text).stream()
+                    .filter(id -> after == null || id > after)
+                    .toList();
+            items = findAvailableByIds(pageFree(candidates, Function.identity(), start, end, page));
+        } else {
+            long afterId = after == null ? 0 : after;
+            items = itemRepository.findAvailableBySearch(toLikePattern(text), afterId, start, end, page).getContent();
+        }
+        return items.stream()
+                .map(ItemMapper::itemToDto)
+                .toList();
+    }
+
+    @Transactional(readOnly = true)
+    public List<ItemDto> getItemsByFuzzySearch(String text, int from, int size, Long after,
+                                               LocalDateTime start, LocalDateTime end) {
+        OffsetPageRequest.validate(from, size);
+        validateWindow(start, end);
+        rejectCursor(after);
+        int limit = Math.min(size, searchProperties.getMaxPageSize());
+        Pageable page = OffsetPageRequest.of(from, limit);
+        double threshold = searchProperties.getFuzzyThreshold();
+        List<Item> items;
+        if (searchProperties.isTrigramIndex()) {
+            itemRepository.setWordSimilarityThreshold(threshold);
+            items = itemRepository.findAvailableBySimilarity(text, threshold, start, end, page).getContent();
+        } else if (searchProperties.getMode() == SearchMode.INDEX) {
+            items = findAvailableByIds(pageFree(itemSearchIndex.fuzzySearch(text, threshold), Function.identity(),
+                    start, end, page));
+        } else {
+            String errorMessage = "Нечёткий поиск недоступен без триграммного или поискового индекса";
+            log.warn(errorMessage);
+            throw new UnsupportedSearchException(errorMessage);
+        }
+        return items.stream()
                 .map(ItemMapper::itemToDto)
                 .toList();
     }
 
+    public List<String> getNameSuggestions(String prefix, int size) {
+        return itemNameSuggester.suggest(prefix, size);
+    }
+
+    private static void rejectCursor(Long after) {
+        if (after != null) {
+            String errorMessage = "Параметр after не поддерживается для поиска с ранжированием, используйте from";
+            log.warn(errorMessage);
+            throw new WrongPaginationException(errorMessage);
+        }
+    }
+
+    private static void validateWindow(LocalDateTime start, LocalDateTime end) {
+        if ((start == null) != (end == null) || (start != null && !start.isBefore(end))) {
+            String errorMessage = String.format("Период поиска задан неверно: начало %s, окончание %s", start, end);
+            log.warn(errorMessage);
+            throw new WrongBookingDatesException(errorMessage);
+        }
+    }
+
+    private <T> List<T> pageFree(List<T> candidates, Function<T, Long> idOf, LocalDateTime start, LocalDateTime end,
+                                 Pageable page) {
+        if (start == null) {
+            return candidates.stream()
+                    .skip(page.getOffset())
+                    .limit(page.getPageSize())
+                    .toList();
+        }
+        long needed = page.getOffset() + page.getPageSize();
+        List<T> free = new ArrayList<>();
+        for (int i = 0; i < candidates.size() && free.size() < needed; i += BOOKED_CHECK_CHUNK) {
+            List<T> chunk = candidates.subList(i, Math.min(i + BOOKED_CHECK_CHUNK, candidates.size()));
+            Set<Long> booked = bookingRepository.findItemIdsBookedBetween(chunk.stream().map(idOf).toList(),
+                    start, end);
+            chunk.stream()
+                    .filter(candidate -> !booked.contains(idOf.apply(candidate)))
+                    .forEach(free::add);
+        }
+        return free.stream()
+                .skip(page.getOffset())
+                .limit(page.getPageSize())
+                .toList();
+    }
+
+    private List<Item> findAvailableByIds(List<Long> ids) {
+        Map<Long, Item> found = itemRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        return ids.stream()
+                .map(found::get)
+                .filter(item -> item != null && item.getAvailable())
+                .toList();
+    }
+
+    private static String toLikePattern(String text) {
+        String escaped = text.toLowerCase()
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        return "%" + escaped + "%";
+    }
+
+    private static String toTsQuery(String text) {
+        return Arrays.stream(text.toLowerCase().split("[^\\p{L}\\p{N}]+"))
+                .filter(word -> !word.isEmpty())
+                .map(word -> word + ":*")
+                .collect(Collectors.joining(" & "));
+    }
+
+    @Transactional
     public CommentDto createComment(Long userId, Long itemId, CommentDto commentDto) {
         User user = userService.getUserIfExistOrElseThrow(userId);
         Item existItem = getItemIfExistOrElseThrow(itemId);
-        List<Booking> bookings = bookingRepository.findAllByItemIdAndBookerIdAndEndBefore(itemId, userId, LocalDateTime.now());
+        LocalDateTime now = LocalDateTime.now();
+        List<Booking> bookings = bookingRepository.findAllByItemIdAndBookerIdAndStartBeforeAndEndBefore(itemId, userId, now, now);
         if (bookings.isEmpty()) {
             String errorMessage = String.format("Пользователь с id = %d не арендовал вещь с itemId = %d или аренда еще не завершилась", userId, itemId);
             log.warn(errorMessage);
@@ -133,6 +291,7 @@ public class ItemService {
         }
         Comment comment = CommentMapper.toComment(commentDto, existItem, user);
         Comment saved = commentRepository.save(comment);
+        itemBookingSummaryService.recordComment(itemId);
         return CommentMapper.toDto(saved);
     }
 }
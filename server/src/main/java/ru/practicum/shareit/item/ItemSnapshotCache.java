@@ -0,0 +1,53 @@
+package ru.practicum.shareit.item;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.model.ItemSnapshot;
+
+import java.util.Optional;
+
+@Component
+@RequiredArgsConstructor
+public class ItemSnapshotCache {
+    public static final String CACHE_NAME = "items";
+
+    private final ItemRepository itemRepository;
+    private final CacheManager cacheManager;
+
+    public Optional<ItemSnapshot> get(Long itemId) {
+        Cache cache = cacheManager.getCache(CACHE_NAME);
+        ItemSnapshot cached = cache == null ? null : cache.get(itemId, ItemSnapshot.class);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        Optional<ItemSnapshot> loaded = itemRepository.findById(itemId).map(ItemSnapshot::of);
+        if (cache != null) {
+            loaded.ifPresent(snapshot -> cache.put(itemId, snapshot));
+        }
+        return loaded;
+    }
+
+    public void evictOwnedBy(Long ownerId) {
+        itemRepository.findIdsByOwnerId(ownerId).forEach(this::evict);
+    }
+
+    public void evict(Long itemId) {
+        Cache cache = cacheManager.getCache(CACHE_NAME);
+        if (cache == null) {
+            return;
+        }
+        cache.evict(itemId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.evict(itemId);
+                }
+            });
+        }
+    }
+}
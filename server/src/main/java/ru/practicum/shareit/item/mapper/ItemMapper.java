@@ -1,10 +1,10 @@
 package ru.practicum.shareit.item.mapper;
 
-import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemWithDateDto;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemBookingSummary;
 import ru.practicum.shareit.request.dto.ItemResponseDto;
 
 import java.util.List;
@@ -37,18 +37,17 @@ public class ItemMapper {
         return dto;
     }
 
-    public static ItemWithDateDto itemToDtoWithDate(Item item, List<CommentDto> comments, Booking next, Booking last) {
+    public static ItemWithDateDto itemToDtoWithDate(Item item, List<CommentDto> comments,
+                                                    ItemBookingSummary summary) {
         ItemWithDateDto itemDto = new ItemWithDateDto();
         itemDto.setId(item.getId());
         itemDto.setName(item.getName());
         itemDto.setAvailable(item.getAvailable());
         itemDto.setDescription(item.getDescription());
         itemDto.setComments(comments);
-        if (next != null) {
-            itemDto.setNextBooking(next.getStart());
-        }
-        if (last != null) {
-            itemDto.setLastBooking(last.getEnd());
+        if (summary != null) {
+            itemDto.setNextBooking(summary.getNextBookingStart());
+            itemDto.setLastBooking(summary.getLastBookingEnd());
         }
         return itemDto;
     }
@@ -2,11 +2,21 @@ package ru.practicum.shareit.item.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+import ru.practicum.shareit.cache.HibernateCacheConfiguration;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.model.User;
 
 @Entity
-@Table(name = "items")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = HibernateCacheConfiguration.ITEMS_REGION)
+@Table(name = "items", indexes = {
+        @Index(name = "items_owner_idx", columnList = "owner_id"),
+        @Index(name = "items_request_idx", columnList = "request_id")
+})
 @Getter
 @Setter
 @ToString
@@ -15,7 +25,8 @@ import ru.practicum.shareit.user.model.User;
 @EqualsAndHashCode(onlyExplicitlyIncluded = true)
 public class Item {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "items_seq")
+    @SequenceGenerator(name = "items_seq", sequenceName = "items_seq", allocationSize = 50)
     @EqualsAndHashCode.Include
     private Long id;
 
@@ -30,9 +41,14 @@ public class Item {
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "owner_id")
+    @OnDelete(action = OnDeleteAction.CASCADE)
     private User owner;
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "request_id")
+    @OnDelete(action = OnDeleteAction.SET_NULL)
     private ItemRequest request;
+
+    @Version
+    private Long version;
 }
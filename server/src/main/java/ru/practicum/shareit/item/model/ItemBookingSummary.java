@@ -0,0 +1,30 @@
+package ru.practicum.shareit.item.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "item_booking_summary")
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+public class ItemBookingSummary {
+    @Id
+    @EqualsAndHashCode.Include
+    private Long itemId;
+
+    private LocalDateTime nextBookingStart;
+
+    private LocalDateTime lastBookingEnd;
+
+    @Column(nullable = false)
+    private long approvedCount;
+
+    @Column(nullable = false)
+    private long commentCount;
+}
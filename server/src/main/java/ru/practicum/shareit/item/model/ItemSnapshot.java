@@ -0,0 +1,29 @@
+package ru.practicum.shareit.item.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+import ru.practicum.shareit.user.model.User;
+
+@Getter
+@ToString
+@AllArgsConstructor
+public class ItemSnapshot {
+    private final Long id;
+    private final Long ownerId;
+    private final Boolean available;
+    private final String name;
+    private final String description;
+    private final Long version;
+
+    public static ItemSnapshot of(Item item) {
+        return new ItemSnapshot(item.getId(), item.getOwner().getId(), item.getAvailable(), item.getName(),
+                item.getDescription(), item.getVersion());
+    }
+
+    public Item toItem() {
+        User owner = new User();
+        owner.setId(ownerId);
+        return new Item(id, name, description, available, owner, null, version);
+    }
+}
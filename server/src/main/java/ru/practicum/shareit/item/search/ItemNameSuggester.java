@@ -0,0 +1,240 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Prefix trie over available item names. Children are kept in sorted parallel char/node arrays, and each node
+ * caches the top completions of its subtree so a keystroke costs one walk down the prefix. A node without its own
+ * name and with a single child reuses the child's completion array instead of copying it, so long unbranched
+ * suffixes do not multiply the cached lists. Reads share a read lock; rebuilds and updates take the write lock.
+ * Updates are applied after their transaction commits, and a rebuild merges into the trie rather than replacing it,
+ * so names put while the rebuild was loading are not overwritten by its older snapshot.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ItemNameSuggester {
+    private static final char[] NO_KEYS = new char[0];
+    private static final Node[] NO_CHILDREN = new Node[0];
+    private static final Completion[] NO_COMPLETIONS = new Completion[0];
+    private static final Comparator<Completion> BY_POPULARITY = Comparator.comparingInt(Completion::count).reversed()
+            .thenComparing(Completion::name);
+
+    private final ItemRepository itemRepository;
+    private final SearchProperties searchProperties;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, String> indexedNames = new HashMap<>();
+    private final Node root = new Node();
+    private Set<Long> updatedDuringBuild;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        lock.writeLock().lock();
+        try {
+            updatedDuringBuild = new HashSet<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        List<Item> items = List.of();
+        try {
+            items = itemRepository.findByAvailableTrue();
+        } finally {
+            lock.writeLock().lock();
+            try {
+                for (Item item : items) {
+                    if (!updatedDuringBuild.contains(item.getId())) {
+                        replace(item.getId(), item.getName());
+                    }
+                }
+                updatedDuringBuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        log.info("Дерево подсказок построено, проиндексировано вещей: {}", indexedNames.size());
+    }
+
+    public void put(Item item) {
+        Long itemId = item.getId();
+        String name = Boolean.TRUE.equals(item.getAvailable()) ? item.getName() : null;
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                replace(itemId, name);
+                if (updatedDuringBuild != null) {
+                    updatedDuringBuild.add(itemId);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public List<String> suggest(String prefix, int size) {
+        int limit = Math.min(size, searchProperties.getSuggestLimit());
+        String key = prefix.toLowerCase();
+        Completion[] top;
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            for (int i = 0; i < key.length() && node != null; i++) {
+                node = node.child(key.charAt(i));
+            }
+            if (node == null) {
+                return Collections.emptyList();
+            }
+            top = node.top;
+        } finally {
+            lock.readLock().unlock();
+        }
+        return Arrays.stream(top)
+                .limit(limit)
+                .map(Completion::name)
+                .toList();
+    }
+
+    private void replace(Long itemId, String name) {
+        String previous = indexedNames.remove(itemId);
+        if (previous != null) {
+            decrement(previous);
+        }
+        if (name == null) {
+            return;
+        }
+        String key = name.toLowerCase();
+        indexedNames.put(itemId, key);
+        Node[] path = new Node[key.length() + 1];
+        path[0] = root;
+        for (int i = 0; i < key.length(); i++) {
+            path[i + 1] = path[i].childOrCreate(key.charAt(i));
+        }
+        Node terminal = path[key.length()];
+        if (terminal.count++ == 0) {
+            terminal.name = name;
+        }
+        refresh(path);
+    }
+
+    private void decrement(String key) {
+        Node[] path = new Node[key.length() + 1];
+        path[0] = root;
+        for (int i = 0; i < key.length(); i++) {
+            path[i + 1] = path[i].child(key.charAt(i));
+        }
+        Node terminal = path[key.length()];
+        if (--terminal.count == 0) {
+            terminal.name = null;
+        }
+        for (int i = key.length(); i > 0; i--) {
+            if (path[i].count == 0 && path[i].keys.length == 0) {
+                path[i - 1].removeChild(key.charAt(i - 1));
+            }
+        }
+        refresh(path);
+    }
+
+    private void refresh(Node[] path) {
+        int limit = searchProperties.getSuggestLimit();
+        for (int i = path.length - 1; i >= 0; i--) {
+            path[i].refreshTop(limit);
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private record Completion(String name, int count) {
+    }
+
+    private static final class Node {
+        private char[] keys = NO_KEYS;
+        private Node[] children = NO_CHILDREN;
+        private Completion[] top = NO_COMPLETIONS;
+        private String name;
+        private int count;
+
+        private Node child(char key) {
+            int index = Arrays.binarySearch(keys, key);
+            return index >= 0 ? children[index] : null;
+        }
+
+        private Node childOrCreate(char key) {
+            int index = Arrays.binarySearch(keys, key);
+            if (index >= 0) {
+                return children[index];
+            }
+            int insertAt = -index - 1;
+            char[] newKeys = new char[keys.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(keys, 0, newKeys, 0, insertAt);
+            System.arraycopy(children, 0, newChildren, 0, insertAt);
+            System.arraycopy(keys, insertAt, newKeys, insertAt + 1, keys.length - insertAt);
+            System.arraycopy(children, insertAt, newChildren, insertAt + 1, children.length - insertAt);
+            Node child = new Node();
+            newKeys[insertAt] = key;
+            newChildren[insertAt] = child;
+            keys = newKeys;
+            children = newChildren;
+            return child;
+        }
+
+        private void removeChild(char key) {
+            int index = Arrays.binarySearch(keys, key);
+            if (index < 0) {
+                return;
+            }
+            char[] newKeys = new char[keys.length - 1];
+            Node[] newChildren = new Node[children.length - 1];
+            System.arraycopy(keys, 0, newKeys, 0, index);
+            System.arraycopy(children, 0, newChildren, 0, index);
+            System.arraycopy(keys, index + 1, newKeys, index, keys.length - index - 1);
+            System.arraycopy(children, index + 1, newChildren, index, children.length - index - 1);
+            keys = newKeys.length == 0 ? NO_KEYS : newKeys;
+            children = newChildren.length == 0 ? NO_CHILDREN : newChildren;
+        }
+
+        private void refreshTop(int limit) {
+            if (count == 0 && children.length == 1) {
+                top = children[0].top;
+                return;
+            }
+            PriorityQueue<Completion> best = new PriorityQueue<>(BY_POPULARITY.reversed());
+            if (count > 0) {
+                best.add(new Completion(name, count));
+            }
+            for (Node child : children) {
+                for (Completion completion : child.top) {
+                    best.add(completion);
+                    if (best.size() > limit) {
+                        best.poll();
+                    }
+                }
+            }
+            Completion[] result = best.toArray(NO_COMPLETIONS);
+            Arrays.sort(result, BY_POPULARITY);
+            top = result;
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ItemSearchIndex {
+    private static final int GRAM_SIZE = 3;
+    private static final char FIELD_SEPARATOR = '\u0000';
+
+    private final ItemRepository itemRepository;
+    private final SearchProperties searchProperties;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, String> documents = new HashMap<>();
+    private final Map<String, Set<Long>> postings = new HashMap<>();
+    private Set<Long> updatedDuringBuild;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        if (!isEnabled()) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            updatedDuringBuild = new HashSet<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        List<Item> items = List.of();
+        try {
+            items = itemRepository.findAll();
+        } finally {
+            lock.writeLock().lock();
+            try {
+                for (Item item : items) {
+                    if (!updatedDuringBuild.contains(item.getId())) {
+                        replace(item.getId(), toDocument(item));
+                    }
+                }
+                updatedDuringBuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        log.info("Поисковый индекс построен, проиндексировано вещей: {}", documents.size());
+    }
+
+    public void put(Item item) {
+        if (!isEnabled()) {
+            return;
+        }
+        Long itemId = item.getId();
+        String document = toDocument(item);
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                replace(itemId, document);
+                if (updatedDuringBuild != null) {
+                    updatedDuringBuild.add(itemId);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public List<Long> search(String text) {
+        String query = text.toLowerCase();
+        lock.readLock().lock();
+        try {
+            Collection<Long> candidates = query.length() < GRAM_SIZE ? documents.keySet() : candidates(query);
+            return candidates.stream()
+                    .filter(id -> documents.get(id).contains(query))
+                    .sorted()
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<Long> fuzzySearch(String text, double threshold) {
+        lock.readLock().lock();
+        try {
+            Map<Long, Double> scores = new HashMap<>();
+            documents.forEach((id, document) -> {
+                int separator = document.indexOf(FIELD_SEPARATOR);
+                double score = Math.max(TrigramScorer.score(text, document.substring(0, separator)),
+                        TrigramScorer.score(text, document.substring(separator + 1)));
+                if (score >= threshold) {
+                    scores.put(id, score);
+                }
+            });
+            return scores.entrySet().stream()
+                    .sorted(Map.Entry.<Long, Double>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                    .map(Map.Entry::getKey)
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private boolean isEnabled() {
+        return searchProperties.getMode() == SearchMode.INDEX;
+    }
+
+    private Collection<Long> candidates(String query) {
+        List<Set<Long>> lists = new ArrayList<>();
+        for (String gram : grams(query)) {
+            Set<Long> ids = postings.get(gram);
+            if (ids == null) {
+                return Collections.emptyList();
+            }
+            lists.add(ids);
+        }
+        lists.sort(Comparator.comparingInt(Set::size));
+        Set<Long> result = new HashSet<>(lists.getFirst());
+        for (int i = 1; i < lists.size() && !result.isEmpty(); i++) {
+            result.retainAll(lists.get(i));
+        }
+        return result;
+    }
+
+    private void replace(Long itemId, String document) {
+        remove(itemId);
+        if (document == null) {
+            return;
+        }
+        documents.put(itemId, document);
+        for (String gram : grams(document)) {
+            postings.computeIfAbsent(gram, key -> new HashSet<>()).add(itemId);
+        }
+    }
+
+    private void remove(Long itemId) {
+        String document = documents.remove(itemId);
+        if (document == null) {
+            return;
+        }
+        for (String gram : grams(document)) {
+            Set<Long> ids = postings.get(gram);
+            ids.remove(itemId);
+            if (ids.isEmpty()) {
+                postings.remove(gram);
+            }
+        }
+    }
+
+    private static String toDocument(Item item) {
+        if (!Boolean.TRUE.equals(item.getAvailable())) {
+            return null;
+        }
+        return (item.getName() + FIELD_SEPARATOR + item.getDescription()).toLowerCase();
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static Set<String> grams(String text) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_SIZE <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM_SIZE));
+        }
+        return grams;
+    }
+}
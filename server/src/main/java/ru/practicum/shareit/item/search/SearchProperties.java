@@ -0,0 +1,16 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.search")
+public class SearchProperties {
+    private SearchMode mode = SearchMode.LIKE;
+    private int maxPageSize = 100;
+    private boolean trigramIndex = false;
+    private double fuzzyThreshold = 0.3;
+    private int suggestLimit = 10;
+}
@@ -0,0 +1,48 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+public class TrigramScorer {
+
+    public static double score(String query, String text) {
+        List<String> queryWords = words(query);
+        List<String> textWords = words(text);
+        if (queryWords.isEmpty() || textWords.isEmpty()) {
+            return 0;
+        }
+        Set<String> queryTrigrams = trigrams(queryWords);
+        int span = Math.min(queryWords.size(), textWords.size());
+        double best = 0;
+        for (int i = 0; i + span <= textWords.size(); i++) {
+            best = Math.max(best, similarity(queryTrigrams, trigrams(textWords.subList(i, i + span))));
+        }
+        return best;
+    }
+
+    private static double similarity(Set<String> first, Set<String> second) {
+        Set<String> common = new HashSet<>(first);
+        common.retainAll(second);
+        int union = first.size() + second.size() - common.size();
+        return union == 0 ? 0 : (double) common.size() / union;
+    }
+
+    private static List<String> words(String text) {
+        return Arrays.stream(text.toLowerCase().split("[^\\p{L}\\p{N}]+"))
+                .filter(word -> !word.isEmpty())
+                .toList();
+    }
+
+    private static Set<String> trigrams(List<String> words) {
+        Set<String> trigrams = new HashSet<>();
+        for (String word : words) {
+            String padded = "  " + word + " ";
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                trigrams.add(padded.substring(i, i + 3));
+            }
+        }
+        return trigrams;
+    }
+}
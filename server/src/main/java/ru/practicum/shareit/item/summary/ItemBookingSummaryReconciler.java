@@ -0,0 +1,41 @@
+package ru.practicum.shareit.item.summary;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ItemBookingSummaryReconciler {
+    private static final int CHUNK_SIZE = 500;
+
+    private final ItemBookingSummaryRepository summaryRepository;
+    private final ItemBookingSummaryService summaryService;
+
+    @Scheduled(fixedDelayString = "${shareit.summary.reconcile-interval:PT10M}",
+            initialDelayString = "${shareit.summary.reconcile-interval:PT10M}")
+    public void reconcile() {
+        long afterId = 0;
+        int checked = 0;
+        int repaired = 0;
+        List<Long> itemIds;
+        do {
+            itemIds = summaryRepository.findItemIdsAfter(afterId, PageRequest.of(0, CHUNK_SIZE));
+            if (!itemIds.isEmpty()) {
+                repaired += summaryService.repair(itemIds);
+                checked += itemIds.size();
+                afterId = itemIds.getLast();
+            }
+        } while (itemIds.size() == CHUNK_SIZE);
+        if (repaired > 0) {
+            log.warn("Сверка сводок бронирований: исправлено {} из {}", repaired, checked);
+        } else {
+            log.debug("Сверка сводок бронирований: проверено {}, расхождений нет", checked);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package ru.practicum.shareit.item.summary;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import ru.practicum.shareit.item.model.ItemBookingSummary;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface ItemBookingSummaryRepository extends JpaRepository<ItemBookingSummary, Long> {
+    List<ItemBookingSummary> findByItemIdIn(Collection<Long> itemIds);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from ItemBookingSummary s where s.itemId in :itemIds order by s.itemId")
+    List<ItemBookingSummary> findForUpdateByItemIdIn(Collection<Long> itemIds);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("select s from ItemBookingSummary s where s.itemId in :itemIds order by s.itemId")
+    List<ItemBookingSummary> findUnlockedForUpdateByItemIdIn(Collection<Long> itemIds);
+
+    @Query("select new ru.practicum.shareit.item.model.ItemBookingSummary(i.id, " +
+            "(select min(b.start) from Booking b where b.item = i " +
+            "and b.status = ru.practicum.shareit.booking.Status.APPROVED and b.start > :now), " +
+            "(select max(b.end) from Booking b where b.item = i " +
+            "and b.status = ru.practicum.shareit.booking.Status.APPROVED and b.start <= :now), " +
+            "(select count(b) from Booking b where b.item = i " +
+            "and b.status = ru.practicum.shareit.booking.Status.APPROVED), " +
+            "(select count(c) from Comment c where c.item = i)) " +
+            "from Item i where i.id in :itemIds")
+    List<ItemBookingSummary> computeByItemIdIn(Collection<Long> itemIds, LocalDateTime now);
+
+    @Query("select i.id from Item i where i.id > :afterId order by i.id")
+    List<Long> findItemIdsAfter(long afterId, Pageable pageable);
+}
@@ -0,0 +1,137 @@
+package ru.practicum.shareit.item.summary;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.model.ItemBookingSummary;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ItemBookingSummaryService {
+    private final ItemBookingSummaryRepository summaryRepository;
+
+    @Transactional
+    public void create(Long itemId) {
+        summaryRepository.save(new ItemBookingSummary(itemId, null, null, 0, 0));
+    }
+
+    @Transactional
+    public void recordApproved(Collection<Booking> bookings) {
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, List<Booking>> byItem = bookings.stream()
+                .collect(Collectors.groupingBy(b -> b.getItem().getId()));
+        Map<Long, ItemBookingSummary> summaries = lockSummaries(byItem.keySet());
+        byItem.forEach((itemId, itemBookings) -> {
+            ItemBookingSummary summary = summaries.get(itemId);
+            if (summary != null) {
+                itemBookings.forEach(booking -> applyApproved(summary, booking, now));
+            }
+        });
+    }
+
+    @Transactional
+    public void recordComment(Long itemId) {
+        ItemBookingSummary summary = lockSummaries(List.of(itemId)).get(itemId);
+        if (summary != null) {
+            summary.setCommentCount(summary.getCommentCount() + 1);
+        }
+    }
+
+    @Transactional
+    public Map<Long, ItemBookingSummary> getSummaries(Collection<Long> itemIds) {
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, ItemBookingSummary> summaries = summaryRepository.findByItemIdIn(itemIds).stream()
+                .collect(Collectors.toMap(ItemBookingSummary::getItemId, Function.identity()));
+        List<Long> outdated = itemIds.stream()
+                .filter(id -> !summaries.containsKey(id) || isStale(summaries.get(id), now))
+                .toList();
+        if (!outdated.isEmpty()) {
+            log.debug("Пересчёт устаревших сводок бронирований для вещей {}", outdated);
+            Map<Long, ItemBookingSummary> actual = summaryRepository.computeByItemIdIn(outdated, now).stream()
+                    .collect(Collectors.toMap(ItemBookingSummary::getItemId, Function.identity()));
+            summaries.putAll(actual);
+            writeBack(actual);
+        }
+        return summaries;
+    }
+
+    @Transactional
+    public int repair(Collection<Long> itemIds) {
+        return refresh(itemIds, LocalDateTime.now(), true).size();
+    }
+
+    private Map<Long, ItemBookingSummary> refresh(Collection<Long> itemIds, LocalDateTime now, boolean insertMissing) {
+        Map<Long, ItemBookingSummary> stored = lockSummaries(itemIds);
+        Map<Long, ItemBookingSummary> changed = new HashMap<>();
+        for (ItemBookingSummary actual : summaryRepository.computeByItemIdIn(itemIds, now)) {
+            ItemBookingSummary summary = stored.get(actual.getItemId());
+            if (summary == null) {
+                changed.put(actual.getItemId(), insertMissing ? summaryRepository.save(actual) : actual);
+            } else if (!sameValues(summary, actual)) {
+                copyValues(actual, summary);
+                changed.put(summary.getItemId(), summary);
+            }
+        }
+        return changed;
+    }
+
+    private void writeBack(Map<Long, ItemBookingSummary> actual) {
+        List<ItemBookingSummary> stored = summaryRepository.findUnlockedForUpdateByItemIdIn(actual.keySet());
+        for (ItemBookingSummary summary : stored) {
+            copyValues(actual.get(summary.getItemId()), summary);
+        }
+        if (stored.size() < actual.size()) {
+            log.debug("Часть сводок бронирований отсутствует или заблокирована другими транзакциями, они будут обновлены позже");
+        }
+    }
+
+    private Map<Long, ItemBookingSummary> lockSummaries(Collection<Long> itemIds) {
+        Map<Long, ItemBookingSummary> summaries = summaryRepository.findForUpdateByItemIdIn(itemIds).stream()
+                .collect(Collectors.toMap(ItemBookingSummary::getItemId, Function.identity()));
+        if (summaries.size() < itemIds.size()) {
+            log.warn("Сводки бронирований отсутствуют для части вещей {}, они будут восстановлены сверкой", itemIds);
+        }
+        return summaries;
+    }
+
+    private static void applyApproved(ItemBookingSummary summary, Booking booking, LocalDateTime now) {
+        summary.setApprovedCount(summary.getApprovedCount() + 1);
+        if (booking.getStart().isAfter(now)) {
+            if (summary.getNextBookingStart() == null || booking.getStart().isBefore(summary.getNextBookingStart())) {
+                summary.setNextBookingStart(booking.getStart());
+            }
+        } else if (summary.getLastBookingEnd() == null || booking.getEnd().isAfter(summary.getLastBookingEnd())) {
+            summary.setLastBookingEnd(booking.getEnd());
+        }
+    }
+
+    private static void copyValues(ItemBookingSummary from, ItemBookingSummary to) {
+        to.setNextBookingStart(from.getNextBookingStart());
+        to.setLastBookingEnd(from.getLastBookingEnd());
+        to.setApprovedCount(from.getApprovedCount());
+        to.setCommentCount(from.getCommentCount());
+    }
+
+    private static boolean isStale(ItemBookingSummary summary, LocalDateTime now) {
+        return summary.getNextBookingStart() != null && !summary.getNextBookingStart().isAfter(now);
+    }
+
+    private static boolean sameValues(ItemBookingSummary summary, ItemBookingSummary actual) {
+        return summary.getApprovedCount() == actual.getApprovedCount()
+                && summary.getCommentCount() == actual.getCommentCount()
+                && Objects.equals(summary.getNextBookingStart(), actual.getNextBookingStart())
+                && Objects.equals(summary.getLastBookingEnd(), actual.getLastBookingEnd());
+    }
+}
@@ -43,7 +43,7 @@ public class ItemRequestService {
     }
 
     public List<ItemRequestDtoWithResponses> getAllUserRequests(Long userId) {
-        userService.getUserIfExistOrElseThrow(userId);
+        userService.checkUserExists(userId);
         List<ItemRequest> allUserRequests = itemRequestRepository.findByRequesterIdOrderByCreatedDesc(userId);
         Map<Long, List<Item>> items = itemRepository.findByRequestIdNotNull().stream()
                 .collect(groupingBy(item -> item.getRequest().getId()));
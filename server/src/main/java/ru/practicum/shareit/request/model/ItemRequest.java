@@ -2,21 +2,32 @@ package ru.practicum.shareit.request.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+import ru.practicum.shareit.cache.HibernateCacheConfiguration;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = HibernateCacheConfiguration.REQUESTS_REGION)
 @Getter
 @Setter
 @ToString
-@Table(name = "requests")
+@Table(name = "requests", indexes = {
+        @Index(name = "requests_requester_created_idx", columnList = "requester_id, created desc"),
+        @Index(name = "requests_created_idx", columnList = "created desc")
+})
 @NoArgsConstructor
 @EqualsAndHashCode(onlyExplicitlyIncluded = true)
 @AllArgsConstructor
 public class ItemRequest {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "requests_seq")
+    @SequenceGenerator(name = "requests_seq", sequenceName = "requests_seq", allocationSize = 50)
     @EqualsAndHashCode.Include
     private Long id;
 
@@ -28,6 +39,7 @@ public class ItemRequest {
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "requester_id")
+    @OnDelete(action = OnDeleteAction.CASCADE)
     private User requester;
 }
 
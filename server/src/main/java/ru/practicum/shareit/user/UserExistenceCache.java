@@ -0,0 +1,139 @@
+package ru.practicum.shareit.user;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserExistenceCache {
+    private static final int CHUNK_SIZE = 1000;
+
+    private final UserRepository userRepository;
+    private final UserExistenceProperties properties;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final BitSet knownIds = new BitSet();
+    private final Map<Long, Long> unknownIds = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        long afterId = 0;
+        int loaded = 0;
+        List<Long> ids;
+        do {
+            ids = userRepository.findIdsAfter(afterId, PageRequest.of(0, CHUNK_SIZE));
+            lock.writeLock().lock();
+            try {
+                ids.stream().filter(UserExistenceCache::fits).forEach(id -> knownIds.set(id.intValue()));
+            } finally {
+                lock.writeLock().unlock();
+            }
+            if (!ids.isEmpty()) {
+                loaded += ids.size();
+                afterId = ids.getLast();
+            }
+        } while (ids.size() == CHUNK_SIZE);
+        log.info("Кэш пользователей прогрет, загружено идентификаторов: {}", loaded);
+    }
+
+    public boolean exists(long userId) {
+        if (isKnown(userId)) {
+            return true;
+        }
+        Long expiresAt = unknownIds.get(userId);
+        if (expiresAt != null) {
+            if (expiresAt - System.nanoTime() > 0) {
+                return false;
+            }
+            unknownIds.remove(userId, expiresAt);
+        }
+        if (userRepository.existsById(userId)) {
+            markPresent(userId);
+            return true;
+        }
+        markAbsent(userId);
+        return false;
+    }
+
+    public void added(long userId) {
+        afterCommit(() -> markPresent(userId));
+    }
+
+    public void deleted(long userId) {
+        afterCommit(() -> markAbsent(userId));
+    }
+
+    private void markPresent(long userId) {
+        unknownIds.remove(userId);
+        if (!fits(userId)) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            knownIds.set((int) userId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void markAbsent(long userId) {
+        if (fits(userId)) {
+            lock.writeLock().lock();
+            try {
+                knownIds.clear((int) userId);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        long now = System.nanoTime();
+        if (unknownIds.size() >= properties.getNegativeMaxSize()) {
+            unknownIds.values().removeIf(expiresAt -> expiresAt - now <= 0);
+            if (unknownIds.size() >= properties.getNegativeMaxSize()) {
+                unknownIds.clear();
+            }
+        }
+        unknownIds.put(userId, now + properties.getNegativeTtl().toNanos());
+    }
+
+    private boolean isKnown(long userId) {
+        if (!fits(userId)) {
+            return false;
+        }
+        lock.readLock().lock();
+        try {
+            return knownIds.get((int) userId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static boolean fits(long userId) {
+        return userId >= 0 && userId <= Integer.MAX_VALUE;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.user;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.users")
+public class UserExistenceProperties {
+    private Duration negativeTtl = Duration.ofSeconds(30);
+    private int negativeMaxSize = 10_000;
+}
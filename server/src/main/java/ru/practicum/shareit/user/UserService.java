@@ -1,11 +1,19 @@
 package ru.practicum.shareit.user;
 
+import jakarta.persistence.EntityManagerFactory;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import ru.practicum.shareit.exception.UserNotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.ItemSnapshotCache;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
@@ -15,7 +23,9 @@ import ru.practicum.shareit.user.model.User;
 @Transactional(readOnly = true)
 public class UserService {
     private final UserRepository userRepository;
-
+    private final UserExistenceCache userExistenceCache;
+    private final ItemSnapshotCache itemSnapshotCache;
+    private final EntityManagerFactory entityManagerFactory;
 
     public UserDto getUserById(Long id) {
         User user = getUserIfExistOrElseThrow(id);
@@ -26,6 +36,7 @@ public class UserService {
     public UserDto create(UserDto userDto) {
         User newUser = UserMapper.dtoToUser(userDto);
         User createdUser = saveUser(newUser);
+        userExistenceCache.added(createdUser.getId());
         return UserMapper.userToDto(createdUser);
     }
 
@@ -56,11 +67,39 @@ public class UserService {
                 .orElseThrow(() -> new UserNotFoundException("Пользователь с id " + id + " не существует"));
     }
 
+    public void checkUserExists(Long id) {
+        if (!userExistenceCache.exists(id)) {
+            throw new UserNotFoundException("Пользователь с id " + id + " не существует");
+        }
+    }
+
     @Transactional
     public UserDto delete(Long id) {
         User userToDelete = getUserIfExistOrElseThrow(id);
+        itemSnapshotCache.evictOwnedBy(id);
         userRepository.deleteById(id);
+        userExistenceCache.deleted(id);
+        evictCascadedAfterCommit();
         return UserMapper.userToDto(userToDelete);
     }
 
+    private void evictCascadedAfterCommit() {
+        Runnable evict = () -> {
+            Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+            cache.evictEntityData(Item.class);
+            cache.evictEntityData(ItemRequest.class);
+            cache.evictQueryRegions();
+        };
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evict.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evict.run();
+            }
+        });
+    }
+
 }
@@ -1,53 +1,160 @@
+ DROP TABLE IF EXISTS item_booking_summary CASCADE;
+ DROP TABLE IF EXISTS booking_slots CASCADE;
  DROP TABLE IF EXISTS bookings CASCADE;
  DROP TABLE IF EXISTS items CASCADE;
  DROP TABLE IF EXISTS users CASCADE;
  DROP TABLE IF EXISTS comments CASCADE;
  DROP TABLE IF EXISTS requests CASCADE;
+ DROP TABLE IF EXISTS outbox_events CASCADE;
+ DROP TABLE IF EXISTS idempotency_keys CASCADE;
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+CREATE SEQUENCE IF NOT EXISTS users_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS requests_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS items_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS bookings_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS comments_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS outbox_events_seq INCREMENT BY 50;
 
 CREATE TABLE IF NOT EXISTS users (
-  id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  id BIGINT PRIMARY KEY,
   name VARCHAR(255) NOT NULL,
   email VARCHAR(512) NOT NULL UNIQUE
 );
 
 CREATE TABLE IF NOT EXISTS requests (
-  id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  id BIGINT PRIMARY KEY,
   description VARCHAR(1024) NOT NULL,
   created TIMESTAMP WITHOUT TIME ZONE NOT NULL,
   requester_id BIGINT NOT NULL,
   FOREIGN KEY (requester_id) REFERENCES users (id) ON DELETE CASCADE
 );
 
+CREATE INDEX IF NOT EXISTS requests_requester_created_idx ON requests (requester_id, created DESC);
+CREATE INDEX IF NOT EXISTS requests_created_idx ON requests (created DESC);
+
 CREATE TABLE IF NOT EXISTS items (
-  id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  id BIGINT PRIMARY KEY,
   name VARCHAR(255) NOT NULL,
   description VARCHAR(1024) NOT NULL,
   available BOOLEAN NOT NULL,
   owner_id BIGINT NOT NULL,
   request_id BIGINT,
+  version BIGINT NOT NULL DEFAULT 0,
+  search_vector TSVECTOR GENERATED ALWAYS AS (to_tsvector('simple', name || ' ' || description)) STORED,
   FOREIGN KEY (owner_id) REFERENCES users(id) ON DELETE CASCADE,
   FOREIGN KEY (request_id) REFERENCES requests(id) ON DELETE SET NULL
 );
 
+CREATE INDEX IF NOT EXISTS items_owner_idx ON items (owner_id);
+CREATE INDEX IF NOT EXISTS items_request_idx ON items (request_id);
+CREATE INDEX IF NOT EXISTS items_search_vector_idx ON items USING GIN (search_vector);
+CREATE INDEX IF NOT EXISTS items_name_trgm_idx ON items USING GIN (lower(name) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS items_description_trgm_idx ON items USING GIN (lower(description) gin_trgm_ops);
+
 CREATE TABLE IF NOT EXISTS bookings (
-  id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  id BIGINT NOT NULL,
   booker_id BIGINT NOT NULL,
   item_id BIGINT NOT NULL,
   status VARCHAR(8) NOT NULL DEFAULT 'WAITING',
   start_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
   end_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+  version BIGINT NOT NULL DEFAULT 0,
   CONSTRAINT chk_status CHECK (status IN ('WAITING', 'APPROVED', 'REJECTED')),
   CONSTRAINT end_after_start CHECK (end_date > start_date),
+  PRIMARY KEY (id, start_date),
   FOREIGN KEY (booker_id) REFERENCES users(id) ON DELETE CASCADE,
   FOREIGN KEY (item_id) REFERENCES items(id) ON DELETE CASCADE
+) PARTITION BY RANGE (start_date);
+
+CREATE TABLE IF NOT EXISTS bookings_default PARTITION OF bookings DEFAULT;
+
+CREATE TABLE IF NOT EXISTS bookings_archive PARTITION OF bookings
+  FOR VALUES FROM (MINVALUE) TO ('2000-01-01') PARTITION BY RANGE (start_date);
+
+CREATE TABLE IF NOT EXISTS bookings_archive_default PARTITION OF bookings_archive DEFAULT;
+
+CREATE TABLE IF NOT EXISTS booking_slots (
+  booking_id BIGINT PRIMARY KEY,
+  item_id BIGINT NOT NULL,
+  start_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+  end_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+  FOREIGN KEY (item_id) REFERENCES items(id) ON DELETE CASCADE,
+  CONSTRAINT bookings_no_overlap EXCLUDE USING GIST (item_id WITH =, tsrange(start_date, end_date) WITH &&)
 );
 
+CREATE OR REPLACE FUNCTION sync_booking_slot() RETURNS trigger LANGUAGE plpgsql AS '
+BEGIN
+  IF current_setting(''shareit.moving_bookings'', true) = ''on'' THEN
+    RETURN NULL;
+  END IF;
+  IF TG_OP <> ''INSERT'' THEN
+    DELETE FROM booking_slots WHERE booking_id = OLD.id;
+  END IF;
+  IF TG_OP <> ''DELETE'' AND NEW.status IN (''WAITING'', ''APPROVED'') THEN
+    INSERT INTO booking_slots (booking_id, item_id, start_date, end_date)
+    VALUES (NEW.id, NEW.item_id, NEW.start_date, NEW.end_date);
+  END IF;
+  RETURN NULL;
+END';
+
+CREATE TRIGGER bookings_sync_slot AFTER INSERT OR UPDATE OR DELETE ON bookings
+  FOR EACH ROW EXECUTE FUNCTION sync_booking_slot();
+
+CREATE INDEX IF NOT EXISTS bookings_booker_start_idx ON bookings (booker_id, start_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS bookings_item_start_idx ON bookings (item_id, start_date DESC, id DESC);
+
 CREATE TABLE IF NOT EXISTS comments (
-  id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  id BIGINT PRIMARY KEY,
   text VARCHAR(1024) NOT NULL,
   author_id BIGINT NOT NULL,
   item_id BIGINT NOT NULL,
   created TIMESTAMP WITHOUT TIME ZONE NOT NULL,
   FOREIGN KEY (author_id) REFERENCES users(id) ON DELETE CASCADE,
   FOREIGN KEY (item_id) REFERENCES items(id) ON DELETE CASCADE
-);
\ No newline at end of file
+);
+
+CREATE INDEX IF NOT EXISTS comments_item_idx ON comments (item_id);
+
+CREATE TABLE IF NOT EXISTS item_booking_summary (
+  item_id BIGINT PRIMARY KEY,
+  next_booking_start TIMESTAMP WITHOUT TIME ZONE,
+  last_booking_end TIMESTAMP WITHOUT TIME ZONE,
+  approved_count BIGINT NOT NULL DEFAULT 0,
+  comment_count BIGINT NOT NULL DEFAULT 0,
+  FOREIGN KEY (item_id) REFERENCES items(id) ON DELETE CASCADE
+);
+
+CREATE TABLE IF NOT EXISTS outbox_events (
+  id BIGINT PRIMARY KEY,
+  type VARCHAR(16) NOT NULL,
+  aggregate_id BIGINT NOT NULL,
+  payload TEXT NOT NULL,
+  created_at TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+  available_at TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+  attempts INTEGER NOT NULL DEFAULT 0
+);
+
+CREATE INDEX IF NOT EXISTS outbox_events_available_idx ON outbox_events (available_at, id);
+
+CREATE TABLE IF NOT EXISTS idempotency_keys (
+  user_id BIGINT NOT NULL,
+  scope VARCHAR(16) NOT NULL,
+  idempotency_key VARCHAR(64) NOT NULL,
+  resource_id BIGINT NOT NULL,
+  request_hash VARCHAR(64) NOT NULL,
+  created_at TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+  PRIMARY KEY (user_id, scope, idempotency_key),
+  FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+);
+
+CREATE INDEX IF NOT EXISTS idempotency_keys_created_idx ON idempotency_keys (created_at);
+
+SELECT setval('users_seq', COALESCE((SELECT MAX(id) FROM users), 0) + 1, false);
+SELECT setval('requests_seq', COALESCE((SELECT MAX(id) FROM requests), 0) + 1, false);
+SELECT setval('items_seq', COALESCE((SELECT MAX(id) FROM items), 0) + 1, false);
+SELECT setval('bookings_seq', COALESCE((SELECT MAX(id) FROM bookings), 0) + 1, false);
+SELECT setval('comments_seq', COALESCE((SELECT MAX(id) FROM comments), 0) + 1, false);
+SELECT setval('outbox_events_seq', COALESCE((SELECT MAX(id) FROM outbox_events), 0) + 1, false);
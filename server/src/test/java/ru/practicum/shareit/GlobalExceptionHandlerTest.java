@@ -2,9 +2,11 @@ package ru.practicum.shareit;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import ru.practicum.shareit.apiError.ApiError;
 import ru.practicum.shareit.exception.*;
 import ru.practicum.shareit.handler.GlobalExceptionHandler;
+import ru.practicum.shareit.item.model.Item;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -57,6 +59,23 @@ public class GlobalExceptionHandlerTest {
         assertThat(apiError.getError()).isEqualTo("User not owner");
     }
 
+    @Test
+    void handleBookingOverlap() {
+        BookingOverlapException ex = new BookingOverlapException("Booking overlap");
+        ApiError apiError = handler.handleBookingOverlap(ex);
+
+        assertEquals(HttpStatus.CONFLICT.value(), apiError.getErrorCode());
+        assertThat(apiError.getError()).isEqualTo("Booking overlap");
+    }
+
+    @Test
+    void handleOptimisticLock() {
+        ObjectOptimisticLockingFailureException ex = new ObjectOptimisticLockingFailureException(Item.class, 1L);
+        ApiError apiError = handler.handleOptimisticLock(ex);
+
+        assertEquals(HttpStatus.CONFLICT.value(), apiError.getErrorCode());
+    }
+
     @Test
     void handleWrongBookingDatesException() {
         WrongBookingDatesException ex = new WrongBookingDatesException("Wrong booking dates");
@@ -83,4 +102,13 @@ public class GlobalExceptionHandlerTest {
         assertEquals(HttpStatus.BAD_REQUEST.value(), apiError.getErrorCode());
         assertThat(apiError.getError()).isEqualTo("Wrong comment");
     }
+
+    @Test
+    void handleUnsupportedSearch() {
+        UnsupportedSearchException ex = new UnsupportedSearchException("Fuzzy search is not available");
+        ApiError apiError = handler.handleUnsupportedSearch(ex);
+
+        assertEquals(HttpStatus.BAD_REQUEST.value(), apiError.getErrorCode());
+        assertThat(apiError.getError()).isEqualTo("Fuzzy search is not available");
+    }
 }
@@ -11,22 +11,31 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
+import ru.practicum.shareit.booking.BookingApprovalOutcome;
 import ru.practicum.shareit.booking.BookingController;
 import ru.practicum.shareit.booking.BookingService;
 import ru.practicum.shareit.booking.State;
 import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.dto.BookingApprovalDto;
+import ru.practicum.shareit.booking.dto.BookingApprovalResultDto;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.dto.BookingHoldDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
@@ -77,10 +86,31 @@ public class BookingControllerTest {
         response.setStatus(Status.APPROVED);
     }
 
+    @Test
+    @SneakyThrows
+    void holdBookingTest() {
+        UUID holdId = UUID.randomUUID();
+        when(bookingService.hold(userId, bookingCreateDto, Duration.ofMinutes(5)))
+                .thenReturn(new BookingHoldDto(holdId, itemId, start, end, start.minusDays(1)));
+
+        mockMvc.perform(post("/bookings/holds?minutes=5")
+                        .content(mapper.writeValueAsString(bookingCreateDto))
+                        .header("X-Sharer-User-Id", userId)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(holdId.toString()))
+                .andExpect(jsonPath("$.itemId").value(itemId));
+
+        mockMvc.perform(delete("/bookings/holds/" + holdId)
+                        .header("X-Sharer-User-Id", userId))
+                .andExpect(status().isOk());
+        verify(bookingService).releaseHold(userId, holdId);
+    }
+
     @Test
     @SneakyThrows
     void createBookingTest() {
-        when(bookingService.create(userId, bookingCreateDto)).thenReturn(response);
+        when(bookingService.create(userId, bookingCreateDto, null)).thenReturn(response);
 
         MvcResult mvcResult =
                 mockMvc
@@ -118,11 +148,66 @@ public class BookingControllerTest {
                 .andExpect(jsonPath("$.status").value("APPROVED"));
     }
 
+    @Test
+    @SneakyThrows
+    void createAllTest() {
+        when(bookingService.createAll(userId, List.of(bookingCreateDto, bookingCreateDto))).thenReturn(List.of(
+                new BookingBatchResultDto(0, response, null),
+                new BookingBatchResultDto(1, null, "overlap")));
+
+        mockMvc
+                .perform(
+                        post("/bookings/batch")
+                                .header("X-Sharer-User-Id", userId)
+                                .content(mapper.writeValueAsString(List.of(bookingCreateDto, bookingCreateDto)))
+                                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].booking.id").value(bookingId))
+                .andExpect(jsonPath("$[1].index").value(1))
+                .andExpect(jsonPath("$[1].error").value("overlap"));
+    }
+
+    @Test
+    @SneakyThrows
+    void approveAllByOwnerTest() {
+        BookingApprovalDto approvalDto = new BookingApprovalDto();
+        approvalDto.setBookingIds(List.of(bookingId, 99L));
+        approvalDto.setApproved(true);
+        when(bookingService.approveAllByOwner(userId, approvalDto)).thenReturn(List.of(
+                new BookingApprovalResultDto(bookingId, BookingApprovalOutcome.UPDATED, Status.APPROVED),
+                new BookingApprovalResultDto(99L, BookingApprovalOutcome.NOT_FOUND, null)));
+
+        mockMvc
+                .perform(
+                        patch("/bookings/approve")
+                                .header("X-Sharer-User-Id", userId)
+                                .content(mapper.writeValueAsString(approvalDto))
+                                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].outcome").value("UPDATED"))
+                .andExpect(jsonPath("$[0].status").value("APPROVED"))
+                .andExpect(jsonPath("$[1].bookingId").value(99L))
+                .andExpect(jsonPath("$[1].outcome").value("NOT_FOUND"));
+    }
+
+    @Test
+    @SneakyThrows
+    void countBookerBookingsTest() {
+        when(bookingService.countBookerBookings(userId)).thenReturn(Map.of(State.ALL, 3L, State.WAITING, 1L));
+
+        mockMvc
+                .perform(get("/bookings/counts")
+                        .header("X-Sharer-User-Id", userId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.ALL").value(3))
+                .andExpect(jsonPath("$.WAITING").value(1));
+    }
+
     @Test
     @SneakyThrows
     void getAllOwnerBookingsTest() {
         booker.setId(33L);
-        when(bookingService.getAllOwnerBookings(userId, State.ALL)).thenReturn(List.of(response));
+        when(bookingService.getAllOwnerBookings(userId, State.ALL, 0, 20, null)).thenReturn(List.of(response));
 
         mockMvc
                 .perform(get("/bookings/owner")
@@ -137,12 +222,15 @@ public class BookingControllerTest {
     @SneakyThrows
     void getAllBookerBookingsTest() {
 
-        when(bookingService.getAllBookerBookings(userId, State.ALL)).thenReturn(List.of(response));
+        when(bookingService.getAllBookerBookings(userId, State.ALL, 10, 5, 40L)).thenReturn(List.of(response));
 
         mockMvc
                 .perform(get("/bookings")
                         .header("X-Sharer-User-Id", userId)
-                        .param("state", "ALL"))
+                        .param("state", "ALL")
+                        .param("from", "10")
+                        .param("size", "5")
+                        .param("after", "40"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].id").value(bookingId))
                 .andExpect(jsonPath("$[0].booker.id").value(userId));
@@ -0,0 +1,153 @@
+package ru.practicum.shareit.controller;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.SneakyThrows;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.UserExistenceCache;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.jpa.open-in-view=false")
+@AutoConfigureMockMvc
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class BookingQueryCountTest {
+    private final MockMvc mockMvc;
+    private final EntityManagerFactory entityManagerFactory;
+    private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final BookingRepository bookingRepository;
+    private final UserExistenceCache userExistenceCache;
+    private final LocalDateTime start = LocalDateTime.of(2025, 1, 1, 10, 10, 0);
+    private User owner;
+    private User booker;
+    private Booking booking;
+
+    @BeforeEach
+    void setData() {
+        owner = userRepository.save(new User(null, "Owner", "owner@mail.com"));
+        booker = userRepository.save(new User(null, "Booker", "booker@mail.com"));
+        userExistenceCache.added(owner.getId());
+        userExistenceCache.added(booker.getId());
+        booking = addBooking(0);
+    }
+
+    @Test
+    void getAllBookerBookings_shouldNotDependOnPageSize() {
+        long single = countStatements(get("/bookings").header("X-Sharer-User-Id", booker.getId()), 1);
+        for (int i = 1; i < 10; i++) {
+            addBooking(i);
+        }
+        long many = countStatements(get("/bookings").header("X-Sharer-User-Id", booker.getId()), 10);
+
+        assertThat(many).isEqualTo(single).isLessThanOrEqualTo(3);
+    }
+
+    @Test
+    void getAllOwnerBookings_shouldNotDependOnPageSize() {
+        long single = countStatements(get("/bookings/owner").header("X-Sharer-User-Id", owner.getId()), 1);
+        for (int i = 1; i < 10; i++) {
+            addBooking(i);
+        }
+        long many = countStatements(get("/bookings/owner").header("X-Sharer-User-Id", owner.getId()), 10);
+
+        assertThat(many).isEqualTo(single).isLessThanOrEqualTo(3);
+    }
+
+    @Test
+    @SneakyThrows
+    void getBookingById_shouldUseSingleStatement() {
+        Statistics statistics = statistics();
+
+        mockMvc.perform(get("/bookings/" + booking.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.item.name").value("Item 0"))
+                .andExpect(jsonPath("$.booker.name").value("Booker"));
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    @SneakyThrows
+    void getAllBookerBookings_shouldPageByExactOffsetAndOwnCursor() {
+        List<Booking> bookings = new ArrayList<>(List.of(booking));
+        for (int i = 1; i < 5; i++) {
+            bookings.add(addBooking(i));
+        }
+        Item ownerItem = itemRepository.save(new Item(null, "Own", "Description", true, owner, null, null));
+        Booking foreign = bookingRepository.save(new Booking(null, ownerItem, owner, start, start.plusHours(1),
+                Status.WAITING, null));
+
+        mockMvc.perform(get("/bookings").header("X-Sharer-User-Id", booker.getId())
+                        .param("from", "1").param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].id").value(bookings.get(3).getId()))
+                .andExpect(jsonPath("$[1].id").value(bookings.get(2).getId()));
+        mockMvc.perform(get("/bookings").header("X-Sharer-User-Id", booker.getId())
+                        .param("size", "2").param("after", String.valueOf(bookings.get(2).getId())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].id").value(bookings.get(1).getId()))
+                .andExpect(jsonPath("$[1].id").value(bookings.get(0).getId()));
+        mockMvc.perform(get("/bookings").header("X-Sharer-User-Id", booker.getId())
+                        .param("after", String.valueOf(foreign.getId())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(0));
+        mockMvc.perform(get("/bookings").header("X-Sharer-User-Id", booker.getId()).param("size", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    private Booking addBooking(int index) {
+        Item item = itemRepository.save(new Item(null, "Item " + index, "Description", true, owner, null, null));
+        return bookingRepository.save(new Booking(null, item, booker, start.plusDays(index),
+                start.plusDays(index).plusHours(1), Status.WAITING, null));
+    }
+
+    @SneakyThrows
+    private long countStatements(MockHttpServletRequestBuilder request, int expectedSize) {
+        Statistics statistics = statistics();
+        mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(expectedSize))
+                .andExpect(jsonPath("$[0].item.name").exists())
+                .andExpect(jsonPath("$[0].booker.name").value("Booker"));
+        return statistics.getPrepareStatementCount();
+    }
+
+    private Statistics statistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+}
@@ -11,9 +11,11 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
+import ru.practicum.shareit.exception.WrongPaginationException;
 import ru.practicum.shareit.item.ItemController;
 import ru.practicum.shareit.item.ItemService;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemCalendarSlotDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemWithDateDto;
 
@@ -68,7 +70,7 @@ public class ItemControllerTest {
         savedItem.setAvailable(available);
         savedItem.setRequestId(requestId);
 
-        when(itemService.create(userId, itemDto)).thenReturn(savedItem);
+        when(itemService.create(userId, itemDto, null)).thenReturn(savedItem);
 
         MvcResult mvcResult =
                 mockMvc
@@ -182,16 +184,81 @@ public class ItemControllerTest {
         item.setAvailable(available);
         item.setRequestId(requestId);
 
-        when(itemService.getItemsBySearch(text)).thenReturn(List.of(item));
+        when(itemService.getItemsBySearch(text, 0, 10, 5L, nextBooking, lastBooking)).thenReturn(List.of(item));
 
         mockMvc
                 .perform(get("/items/search")
-                        .param("text", text))
+                        .param("text", text)
+                        .param("size", "10")
+                        .param("after", "5")
+                        .param("start", "2025-01-01T10:10:00")
+                        .param("end", "2025-01-02T20:20:00"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].id").value(itemId))
                 .andExpect(jsonPath("$[0].name").value(name));
     }
 
+    @Test
+    @SneakyThrows
+    void getItemsByFuzzySearchTest() {
+        ItemDto item = new ItemDto();
+        item.setId(itemId);
+        item.setName(name);
+
+        when(itemService.getItemsByFuzzySearch("itme", 0, 20, null, null, null)).thenReturn(List.of(item));
+
+        mockMvc
+                .perform(get("/items/search")
+                        .param("text", "itme")
+                        .param("fuzzy", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(itemId));
+    }
+
+    @Test
+    @SneakyThrows
+    void getItemsByFuzzySearch_afterCursor_shouldReturnBadRequest() {
+        when(itemService.getItemsByFuzzySearch("itme", 0, 20, 5L, null, null))
+                .thenThrow(new WrongPaginationException("Параметр after не поддерживается"));
+
+        mockMvc
+                .perform(get("/items/search")
+                        .param("text", "itme")
+                        .param("fuzzy", "true")
+                        .param("after", "5"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @SneakyThrows
+    void getNameSuggestionsTest() {
+        when(itemService.getNameSuggestions("ite", 5)).thenReturn(List.of(name));
+
+        mockMvc
+                .perform(get("/items/suggest")
+                        .param("prefix", "ite")
+                        .param("size", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0]").value(name));
+    }
+
+    @Test
+    @SneakyThrows
+    void getCalendarTest() {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0, 0);
+        when(itemService.getCalendar(itemId, from, from.plusDays(1))).thenReturn(List.of(
+                new ItemCalendarSlotDto(from, from.plusHours(10), false),
+                new ItemCalendarSlotDto(from.plusHours(10), from.plusDays(1), true)));
+
+        mockMvc
+                .perform(get("/items/" + itemId + "/calendar")
+                        .param("from", "2030-01-01T00:00:00")
+                        .param("to", "2030-01-02T00:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[1].start").value("2030-01-01T10:00:00"))
+                .andExpect(jsonPath("$[1].busy").value(true));
+    }
+
     @Test
     @SneakyThrows
     void createCommentTest() {
@@ -0,0 +1,56 @@
+package ru.practicum.shareit.repository;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles(profiles = {"test"})
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class BatchInsertTest {
+    private static final int ROWS = 500;
+
+    private final BookingRepository bookingRepository;
+    private final ItemRepository itemRepository;
+    private final UserRepository userRepository;
+    private final EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void saveAll_shouldBatchInserts() {
+        User user = userRepository.save(new User(null, "Name", "name@mail.com"));
+        Item item = itemRepository.saveAndFlush(new Item(null, "Item", "Description", true, user, null, null));
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 0, 0, 0);
+        List<Booking> bookings = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            bookings.add(new Booking(null, item, user, start.plusHours(i), start.plusHours(i).plusMinutes(30),
+                    Status.WAITING, null));
+        }
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        bookingRepository.saveAll(bookings);
+        bookingRepository.flush();
+
+        assertThat(bookings).allMatch(b -> b.getId() != null);
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(ROWS);
+        assertThat(statistics.getPrepareStatementCount()).isLessThan(ROWS / 10);
+    }
+}
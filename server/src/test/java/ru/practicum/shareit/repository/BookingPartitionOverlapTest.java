@@ -0,0 +1,94 @@
+package ru.practicum.shareit.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest(properties = {
+        "spring.datasource.driver-class-name=org.postgresql.Driver",
+        "spring.jpa.hibernate.ddl-auto=none",
+        "spring.sql.init.mode=always",
+        "shareit.search.trigram-index=true",
+        "shareit.bookings.partitioning.enabled=true"})
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class BookingPartitionOverlapTest {
+    @Container
+    @ServiceConnection
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private final BookingRepository bookingRepository;
+    private final ItemRepository itemRepository;
+    private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final LocalDateTime monthEnd = YearMonth.now().plusMonths(1).atEndOfMonth().atStartOfDay();
+    private User booker;
+    private Item item;
+
+    @BeforeEach
+    void setData() {
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+        booker = userRepository.save(new User(null, "Booker", "booker@mail.com"));
+        item = itemRepository.save(new Item(null, "Item", "Description", true, booker, null, null));
+    }
+
+    @Test
+    void save_overlapAcrossPartitions_shouldViolateConstraint() {
+        Booking first = bookingRepository.saveAndFlush(new Booking(null, item, booker, monthEnd,
+                monthEnd.plusDays(2), Status.WAITING, null));
+        Booking second = new Booking(null, item, booker, monthEnd.plusDays(1), monthEnd.plusDays(3),
+                Status.WAITING, null);
+
+        assertThatThrownBy(() -> bookingRepository.saveAndFlush(second))
+                .isInstanceOf(DataIntegrityViolationException.class)
+                .hasMessageContaining("bookings_no_overlap");
+        assertThat(partitionOf(first)).isEqualTo(partitionName(monthEnd));
+    }
+
+    @Test
+    void save_afterRejection_shouldReleaseSlot() {
+        Booking first = bookingRepository.saveAndFlush(new Booking(null, item, booker, monthEnd,
+                monthEnd.plusDays(2), Status.WAITING, null));
+        first.setStatus(Status.REJECTED);
+        bookingRepository.saveAndFlush(first);
+
+        Booking second = bookingRepository.saveAndFlush(new Booking(null, item, booker, monthEnd.plusDays(1),
+                monthEnd.plusDays(3), Status.WAITING, null));
+
+        assertThat(partitionOf(second)).isEqualTo(partitionName(monthEnd.plusDays(1)));
+        assertThat(jdbcTemplate.queryForList("SELECT booking_id FROM booking_slots", Long.class))
+                .containsExactly(second.getId());
+    }
+
+    private String partitionOf(Booking booking) {
+        return jdbcTemplate.queryForObject("SELECT tableoid::regclass::text FROM bookings WHERE id = ?",
+                String.class, booking.getId());
+    }
+
+    private static String partitionName(LocalDateTime date) {
+        return String.format("bookings_p%d_%02d", date.getYear(), date.getMonthValue());
+    }
+}
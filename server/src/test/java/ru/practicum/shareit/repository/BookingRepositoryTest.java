@@ -6,12 +6,20 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.test.context.ActiveProfiles;
 import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingSpecifications;
+import ru.practicum.shareit.booking.State;
+import ru.practicum.shareit.booking.dto.BookingOwnership;
+import ru.practicum.shareit.booking.dto.BookingStateCounts;
 import ru.practicum.shareit.booking.Status;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemBookingSummary;
+import ru.practicum.shareit.item.summary.ItemBookingSummaryRepository;
 import ru.practicum.shareit.request.ItemRequestRepository;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.UserRepository;
@@ -31,6 +39,7 @@ public class BookingRepositoryTest {
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
     private final ItemRequestRepository requestRepository;
+    private final ItemBookingSummaryRepository summaryRepository;
     private Item itemToSave;
     private User user;
     private User requester;
@@ -84,42 +93,132 @@ public class BookingRepositoryTest {
     }
 
     @Test
-    void findByBookerId() {
-        List<Booking> bookings = bookingRepository.findByBookerId(requester.getId());
+    void findAllByBookerSpecification() {
+        List<Booking> bookings = bookingRepository.findAll(BookingSpecifications.byBooker(requester.getId()));
 
         assertNotNull(bookings);
         assertThat(bookings.getFirst()).usingRecursiveComparison().ignoringFields("id").isEqualTo(booking);
     }
 
     @Test
-    void findAllByBookerIdAndStartAfterOrderByStartDesc() {
-        List<Booking> bookings = bookingRepository.findAllByBookerIdAndStartAfterOrderByStartDesc(requester.getId(), created);
+    void findAllByOwnerSpecification() {
+        List<Booking> bookings = bookingRepository.findAll(BookingSpecifications.byItemOwner(user.getId()));
 
         assertNotNull(bookings);
         assertThat(bookings.getFirst()).usingRecursiveComparison().ignoringFields("id").isEqualTo(booking);
     }
 
     @Test
-    void findAllByItemOwnerIdOrderByStartDesc() {
-        List<Booking> bookings = bookingRepository.findAllByItemOwnerIdOrderByStartDesc(user.getId());
+    void inStateSpecification_shouldMatchBookingByDatesAndStatus() {
+        Specification<Booking> byBooker = BookingSpecifications.byBooker(requester.getId());
+
+        assertThat(bookingRepository.findAll(byBooker.and(BookingSpecifications.inState(State.FUTURE, created))))
+                .hasSize(1);
+        assertThat(bookingRepository.findAll(byBooker.and(BookingSpecifications.inState(State.CURRENT, created))))
+                .isEmpty();
+        assertThat(bookingRepository.findAll(byBooker.and(BookingSpecifications.inState(State.CURRENT,
+                firstDate.plusMinutes(1))))).hasSize(1);
+        assertThat(bookingRepository.findAll(byBooker.and(BookingSpecifications.inState(State.PAST,
+                secondDate.plusMinutes(1))))).hasSize(1);
+        assertThat(bookingRepository.findAll(byBooker.and(BookingSpecifications.inState(State.WAITING, created))))
+                .hasSize(1);
+        assertThat(bookingRepository.findAll(byBooker.and(BookingSpecifications.inState(State.REJECTED, created))))
+                .isEmpty();
+    }
 
-        assertNotNull(bookings);
-        assertThat(bookings.getFirst()).usingRecursiveComparison().ignoringFields("id").isEqualTo(booking);
+    @Test
+    void countStates_shouldMatchInStateSpecification() {
+        LocalDateTime now = firstDate.plusMinutes(30);
+        bookingRepository.save(new Booking(null, itemToSave, requester, created, firstDate, Status.APPROVED, null));
+        bookingRepository.save(new Booking(null, itemToSave, requester, secondDate, secondDate.plusDays(1),
+                Status.REJECTED, null));
+        bookingRepository.save(new Booking(null, itemToSave, user, secondDate, secondDate.plusDays(1),
+                Status.WAITING, null));
+
+        BookingStateCounts byBooker = bookingRepository.countStatesByBookerId(requester.getId(), now);
+        BookingStateCounts byOwner = bookingRepository.countStatesByOwnerId(user.getId(), now);
+
+        assertThat(byBooker).isEqualTo(new BookingStateCounts(3L, 1L, 1L, 1L, 1L, 1L));
+        assertThat(byOwner).isEqualTo(new BookingStateCounts(4L, 1L, 1L, 2L, 2L, 1L));
+        for (State state : State.values()) {
+            assertThat(bookingRepository.count(BookingSpecifications.byBooker(requester.getId())
+                    .and(BookingSpecifications.inState(state, now))))
+                    .isEqualTo(List.of(byBooker.getAll(), byBooker.getCurrent(), byBooker.getPast(),
+                            byBooker.getFuture(), byBooker.getWaiting(), byBooker.getRejected()).get(state.ordinal()));
+        }
     }
 
     @Test
-    void findAllByItemIdAndBookerIdAndEndBefore() {
-        List<Booking> bookings = bookingRepository.findAllByItemIdAndBookerIdAndEndBefore(itemToSave.getId(), requester.getId(), LocalDateTime.now());
+    void afterSpecification_shouldPageByStartAndId() {
+        Booking sameStart = bookingRepository.save(new Booking(null, itemToSave, requester, firstDate, secondDate,
+                Status.APPROVED, null));
+        Booking earlier = bookingRepository.save(new Booking(null, itemToSave, requester, created, firstDate,
+                Status.APPROVED, null));
+        Sort newestFirst = Sort.by(Sort.Direction.DESC, "start", "id");
+        Specification<Booking> byBooker = BookingSpecifications.byBooker(requester.getId());
+
+        List<Booking> firstPage = bookingRepository.findBy(byBooker, q -> q.sortBy(newestFirst).limit(1).all());
+        List<Booking> secondPage = bookingRepository.findBy(byBooker.and(BookingSpecifications.after(firstPage.getFirst().getId(), byBooker)),
+                q -> q.sortBy(newestFirst).limit(2).all());
+
+        assertThat(firstPage).extracting(Booking::getId).containsExactly(sameStart.getId());
+        assertThat(secondPage).extracting(Booking::getId).containsExactly(booking.getId(), earlier.getId());
+    }
+
+    @Test
+    void findAllByItemIdAndBookerIdAndStartBeforeAndEndBefore() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Booking> bookings = bookingRepository.findAllByItemIdAndBookerIdAndStartBeforeAndEndBefore(itemToSave.getId(), requester.getId(), now, now);
 
         assertNotNull(bookings);
         assertThat(bookings.getFirst()).usingRecursiveComparison().ignoringFields("id").isEqualTo(booking);
     }
 
+    @Test
+    void computeSummary_shouldTakeApprovedBookingsAroundNow() {
+        LocalDateTime now = LocalDateTime.of(2025, 1, 1, 12, 0, 0);
+        booking.setStatus(Status.APPROVED);
+        bookingRepository.save(booking);
+        bookingRepository.save(new Booking(null, itemToSave, requester, now.minusMinutes(30), now.plusMinutes(30),
+                Status.APPROVED, null));
+        bookingRepository.save(new Booking(null, itemToSave, requester, now.plusDays(1), now.plusDays(2),
+                Status.APPROVED, null));
+        bookingRepository.save(new Booking(null, itemToSave, requester, now.plusHours(1), now.plusHours(2),
+                Status.REJECTED, null));
+
+        List<ItemBookingSummary> summaries = summaryRepository.computeByItemIdIn(List.of(itemToSave.getId()), now);
+
+        assertThat(summaries).singleElement()
+                .extracting(ItemBookingSummary::getItemId, ItemBookingSummary::getNextBookingStart,
+                        ItemBookingSummary::getLastBookingEnd, ItemBookingSummary::getApprovedCount,
+                        ItemBookingSummary::getCommentCount)
+                .containsExactly(itemToSave.getId(), now.plusDays(1), now.plusMinutes(30), 3L, 0L);
+    }
+
+    @Test
+    void updateStatusIfWaiting_shouldChangeOnlyWaitingBooking() {
+        int first = bookingRepository.updateStatusIfWaiting(List.of(booking.getId()), Status.APPROVED);
+        int second = bookingRepository.updateStatusIfWaiting(List.of(booking.getId()), Status.REJECTED);
+
+        Booking updated = bookingRepository.findById(booking.getId()).orElseThrow();
+        assertThat(first).isEqualTo(1);
+        assertThat(second).isZero();
+        assertThat(updated.getStatus()).isEqualTo(Status.APPROVED);
+        assertThat(updated.getVersion()).isEqualTo(1L);
+    }
+
+    @Test
+    void findOwnershipByIdIn() {
+        List<BookingOwnership> ownership = bookingRepository.findOwnershipByIdIn(List.of(booking.getId(), -1L));
+
+        assertThat(ownership).containsExactly(new BookingOwnership(booking.getId(), user.getId(), Status.WAITING));
+    }
+
     @AfterEach
     void tearDown() {
-        userRepository.deleteAll();
-        itemRepository.deleteAll();
         bookingRepository.deleteAll();
+        itemRepository.deleteAll();
         requestRepository.deleteAll();
+        userRepository.deleteAll();
     }
 }
@@ -0,0 +1,132 @@
+package ru.practicum.shareit.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingSpecifications;
+import ru.practicum.shareit.booking.State;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.CommentRepository;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.summary.ItemBookingSummaryRepository;
+import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "ru.practicum.shareit.repository.H2IndexCoverageTest$SqlRecorder")
+@ActiveProfiles(profiles = {"test"})
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class H2IndexCoverageTest {
+    private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final ItemRequestRepository requestRepository;
+    private final BookingRepository bookingRepository;
+    private final CommentRepository commentRepository;
+    private final ItemBookingSummaryRepository summaryRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final LocalDateTime now = LocalDateTime.of(2025, 1, 1, 12, 0, 0);
+    private User owner;
+    private User booker;
+    private Item item;
+    private ItemRequest request;
+
+    @BeforeEach
+    void setData() {
+        owner = userRepository.save(new User(null, "Owner", "owner@mail.com"));
+        booker = userRepository.save(new User(null, "Booker", "booker@mail.com"));
+        request = requestRepository.save(new ItemRequest(null, "Need item", now, booker));
+        for (int i = 0; i < 50; i++) {
+            User user = i == 0 ? owner : userRepository.save(new User(null, "User " + i, "user" + i + "@mail.com"));
+            Item saved = itemRepository.save(new Item(null, "Item " + i, "Description", true, user,
+                    i == 0 ? request : null, null));
+            for (int j = 0; j < 5; j++) {
+                bookingRepository.save(new Booking(null, saved, j == 0 ? booker : user, now.plusDays(j),
+                        now.plusDays(j).plusHours(1), Status.APPROVED, null));
+            }
+            commentRepository.save(new Comment(null, "Comment " + i, saved, booker));
+            if (i == 0) {
+                item = saved;
+            }
+        }
+        userRepository.flush();
+        jdbcTemplate.execute("ANALYZE");
+        SqlRecorder.STATEMENTS.clear();
+    }
+
+    @Test
+    void lookupQueries_shouldNotScanTablesOnH2() {
+        Sort newestFirst = Sort.by(Sort.Direction.DESC, "start", "id");
+        for (State state : State.values()) {
+            bookingRepository.findWithItemAndBooker(BookingSpecifications.byBooker(booker.getId())
+                    .and(BookingSpecifications.inState(state, now)), newestFirst, 0, 20);
+            bookingRepository.findWithItemAndBooker(BookingSpecifications.byItemOwner(owner.getId())
+                    .and(BookingSpecifications.inState(state, now)), newestFirst, 5, 5);
+        }
+        bookingRepository.findAllByItemIdAndBookerIdAndStartBeforeAndEndBefore(item.getId(), booker.getId(), now, now);
+        bookingRepository.countStatesByBookerId(booker.getId(), now);
+        bookingRepository.countStatesByOwnerId(owner.getId(), now);
+        summaryRepository.computeByItemIdIn(List.of(item.getId()), now);
+        summaryRepository.findByItemIdIn(List.of(item.getId()));
+        itemRepository.findByOwner(owner);
+        itemRepository.findByRequestId(request.getId());
+        requestRepository.findByRequesterIdOrderByCreatedDesc(booker.getId());
+        commentRepository.findByItemId(item.getId());
+        commentRepository.findByItemIn(List.of(item));
+
+        List<String> scans = new ArrayList<>();
+        for (String sql : SqlRecorder.STATEMENTS) {
+            String plan = explain(sql);
+            if (plan.contains("tableScan")) {
+                scans.add(plan);
+            }
+        }
+
+        assertThat(SqlRecorder.STATEMENTS).isNotEmpty();
+        assertThat(scans).isEmpty();
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.query("EXPLAIN " + sql, ps -> {
+            for (int i = 1; i <= ps.getParameterMetaData().getParameterCount(); i++) {
+                ps.setObject(i, null);
+            }
+        }, rs -> {
+            StringBuilder plan = new StringBuilder();
+            while (rs.next()) {
+                plan.append(rs.getString(1));
+            }
+            return plan.toString();
+        });
+    }
+
+    public static class SqlRecorder implements StatementInspector {
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            if (sql.startsWith("select")) {
+                STATEMENTS.add(sql);
+            }
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package ru.practicum.shareit.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.idempotency.IdempotencyKey;
+import ru.practicum.shareit.idempotency.IdempotencyKeyId;
+import ru.practicum.shareit.idempotency.IdempotencyKeyRepository;
+import ru.practicum.shareit.idempotency.IdempotencyScope;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DataJpaTest
+@ActiveProfiles(profiles = {"test"})
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class IdempotencyKeyRepositoryTest {
+    private static final String HASH = "a".repeat(64);
+
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final LocalDateTime now = LocalDateTime.of(2025, 1, 1, 12, 0, 0);
+
+    @Test
+    void insert_shouldBeFoundByUserScopeAndKey() {
+        idempotencyKeyRepository.insert(1L, IdempotencyScope.BOOKING.name(), "key-1", 10L, HASH, now);
+        idempotencyKeyRepository.insert(1L, IdempotencyScope.ITEM.name(), "key-1", 20L, HASH, now);
+
+        assertThat(findResourceId(1L, IdempotencyScope.BOOKING, "key-1")).contains(10L);
+        assertThat(findResourceId(1L, IdempotencyScope.ITEM, "key-1")).contains(20L);
+        assertThat(findResourceId(2L, IdempotencyScope.BOOKING, "key-1")).isEqualTo(Optional.empty());
+        assertThat(idempotencyKeyRepository.findById(new IdempotencyKeyId(1L, IdempotencyScope.ITEM, "key-1")))
+                .get().extracting(IdempotencyKey::getRequestHash).isEqualTo(HASH);
+    }
+
+    @Test
+    void insert_duplicateKey_shouldFail() {
+        idempotencyKeyRepository.insert(1L, IdempotencyScope.BOOKING.name(), "key-1", 10L, HASH, now);
+
+        assertThrows(DataIntegrityViolationException.class,
+                () -> idempotencyKeyRepository.insert(1L, IdempotencyScope.BOOKING.name(), "key-1", 11L, HASH, now));
+    }
+
+    @Test
+    void deleteCreatedBefore_shouldRemoveOnlyExpiredKeys() {
+        idempotencyKeyRepository.insert(1L, IdempotencyScope.BOOKING.name(), "old", 10L, HASH, now.minusDays(8));
+        idempotencyKeyRepository.insert(1L, IdempotencyScope.BOOKING.name(), "new", 11L, HASH, now);
+
+        assertThat(idempotencyKeyRepository.deleteCreatedBefore(now.minusDays(7))).isEqualTo(1);
+        assertThat(findResourceId(1L, IdempotencyScope.BOOKING, "new")).contains(11L);
+    }
+
+    private Optional<Long> findResourceId(Long userId, IdempotencyScope scope, String key) {
+        return idempotencyKeyRepository.findById(new IdempotencyKeyId(userId, scope, key))
+                .map(IdempotencyKey::getResourceId);
+    }
+}
@@ -6,7 +6,13 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.ItemRequestRepository;
@@ -19,6 +25,7 @@ import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 @DataJpaTest
 @ActiveProfiles(profiles = {"test"})
@@ -27,6 +34,7 @@ public class ItemRepositoryTest {
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
     private final ItemRequestRepository requestRepository;
+    private final BookingRepository bookingRepository;
     private Item itemToSave;
     private User user;
     private ItemRequest request;
@@ -84,14 +92,61 @@ public class ItemRepositoryTest {
     }
 
     @Test
-    void findByAvailableTrueAndNameIgnoreCaseContainingOrDescriptionIgnoreCaseContaining() {
-        List<Item> items = itemRepository.findByAvailableTrueAndNameIgnoreCaseContainingOrDescriptionIgnoreCaseContaining(itemName, itemName);
+    void findAvailableBySearch() {
+        Slice<Item> items = itemRepository.findAvailableBySearch("%item%", 0, null, null, PageRequest.of(0, 10));
         assertNotNull(items);
-        assertThat(items.getFirst()).usingRecursiveComparison().ignoringFields("id").isEqualTo(itemToSave);
+        assertThat(items.getContent().getFirst()).usingRecursiveComparison().ignoringFields("id").isEqualTo(itemToSave);
+    }
+
+    @Test
+    void findAvailableBySearch_shouldSkipUnavailableAndPageByKeyset() {
+        Item hidden = new Item(null, "Hidden", "Description of hidden item", false, user, null, null);
+        itemRepository.save(hidden);
+        Item second = new Item(null, "Second", "Another item", true, user, null, null);
+        itemRepository.save(second);
+
+        Slice<Item> firstPage = itemRepository.findAvailableBySearch("%item%", 0, null, null, PageRequest.of(0, 1));
+        Slice<Item> secondPage = itemRepository.findAvailableBySearch("%item%", firstPage.getContent().getFirst().getId(),
+                null, null, PageRequest.of(0, 1));
+
+        assertThat(firstPage.getContent()).extracting(Item::getId).containsExactly(itemToSave.getId());
+        assertThat(firstPage.hasNext()).isTrue();
+        assertThat(secondPage.getContent()).extracting(Item::getId).containsExactly(second.getId());
+        assertThat(secondPage.hasNext()).isFalse();
+    }
+
+    @Test
+    void findAvailableBySearch_withWindow_shouldSkipItemsBookedInWindow() {
+        Item rejected = new Item(null, "Rejected", "Item with rejected booking", true, user, null, null);
+        itemRepository.save(rejected);
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 10, 0);
+        LocalDateTime end = start.plusDays(2);
+        bookingRepository.save(new Booking(null, itemToSave, request.getRequester(), start.plusDays(1),
+                end.plusDays(1), Status.APPROVED, null));
+        bookingRepository.save(new Booking(null, rejected, request.getRequester(), start, end, Status.REJECTED, null));
+
+        Slice<Item> booked = itemRepository.findAvailableBySearch("%item%", 0, start, end, PageRequest.of(0, 10));
+        Slice<Item> afterBooking = itemRepository.findAvailableBySearch("%item%", 0, end.plusDays(1), end.plusDays(2),
+                PageRequest.of(0, 10));
+
+        assertThat(booked.getContent()).extracting(Item::getId).containsExactly(rejected.getId());
+        assertThat(afterBooking.getContent()).extracting(Item::getId)
+                .containsExactly(itemToSave.getId(), rejected.getId());
+    }
+
+    @Test
+    void save_staleVersion_shouldThrowOptimisticLockException() {
+        Item stale = new Item(itemToSave.getId(), "Stale", itemToSave.getDescription(), true, user, null,
+                itemToSave.getVersion());
+        itemToSave.setName("Fresh");
+        itemRepository.saveAndFlush(itemToSave);
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> itemRepository.saveAndFlush(stale));
     }
 
     @AfterEach
     void tearDown() {
+        bookingRepository.deleteAll();
         userRepository.deleteAll();
         itemRepository.deleteAll();
         requestRepository.deleteAll();
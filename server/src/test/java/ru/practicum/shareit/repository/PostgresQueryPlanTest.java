@@ -0,0 +1,168 @@
+package ru.practicum.shareit.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingSpecifications;
+import ru.practicum.shareit.booking.State;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.CommentRepository;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.summary.ItemBookingSummaryRepository;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
+import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest(properties = {
+        "spring.datasource.driver-class-name=org.postgresql.Driver",
+        "spring.jpa.hibernate.ddl-auto=none",
+        "spring.sql.init.mode=always",
+        "shareit.search.trigram-index=true",
+        "shareit.bookings.partitioning.enabled=true",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "ru.practicum.shareit.repository.PostgresQueryPlanTest$SqlRecorder"})
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class PostgresQueryPlanTest {
+    @Container
+    @ServiceConnection
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine")
+            .withUrlParam("preferQueryMode", "simple");
+
+    private static final Pattern PARAMETER = Pattern.compile("\\?");
+
+    private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final ItemRequestRepository requestRepository;
+    private final BookingRepository bookingRepository;
+    private final CommentRepository commentRepository;
+    private final ItemBookingSummaryRepository summaryRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final LocalDateTime now = YearMonth.now().plusMonths(1).atDay(10).atTime(12, 0);
+    private User owner;
+    private User booker;
+    private Item item;
+    private ItemRequest request;
+
+    @BeforeEach
+    void setData() {
+        commentRepository.deleteAll();
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        requestRepository.deleteAll();
+        userRepository.deleteAll();
+        owner = userRepository.save(new User(null, "Owner", "owner@mail.com"));
+        booker = userRepository.save(new User(null, "Booker", "booker@mail.com"));
+        request = requestRepository.save(new ItemRequest(null, "Need item", now, booker));
+        List<Booking> bookings = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            User user = i == 0 ? owner : userRepository.save(new User(null, "User " + i, "user" + i + "@mail.com"));
+            Item saved = itemRepository.save(new Item(null, "Drill " + i, "Cordless drill", true, user,
+                    i == 0 ? request : null, null));
+            for (int j = 0; j < 5; j++) {
+                bookings.add(new Booking(null, saved, j == 0 ? booker : user, now.plusDays(j),
+                        now.plusDays(j).plusHours(1), Status.APPROVED, null));
+            }
+            commentRepository.save(new Comment(null, "Comment " + i, saved, booker));
+            if (i == 0) {
+                item = saved;
+            }
+        }
+        bookingRepository.saveAll(bookings);
+        jdbcTemplate.execute("ANALYZE");
+        SqlRecorder.STATEMENTS.clear();
+    }
+
+    @Test
+    void lookupQueries_shouldNotScanTables() {
+        Sort newestFirst = Sort.by(Sort.Direction.DESC, "start", "id");
+        for (State state : State.values()) {
+            bookingRepository.findWithItemAndBooker(BookingSpecifications.byBooker(booker.getId())
+                    .and(BookingSpecifications.inState(state, now)), newestFirst, 0, 20);
+            bookingRepository.findWithItemAndBooker(BookingSpecifications.byItemOwner(owner.getId())
+                    .and(BookingSpecifications.inState(state, now)), newestFirst, 5, 5);
+        }
+        bookingRepository.findAllByItemIdAndBookerIdAndStartBeforeAndEndBefore(item.getId(), booker.getId(), now, now);
+        bookingRepository.countStatesByBookerId(booker.getId(), now);
+        bookingRepository.countStatesByOwnerId(owner.getId(), now);
+        bookingRepository.findItemIdsBookedBetween(List.of(item.getId()), now, now.plusHours(1));
+        summaryRepository.computeByItemIdIn(List.of(item.getId()), now);
+        summaryRepository.findByItemIdIn(List.of(item.getId()));
+        itemRepository.findByOwner(owner);
+        itemRepository.findByRequestId(request.getId());
+        itemRepository.findAvailableByFullText("drill:*", now, now.plusHours(1), OffsetPageRequest.of(0, 20));
+        itemRepository.findAvailableBySimilarity("drll", 0.3, now, now.plusHours(1), OffsetPageRequest.of(0, 20));
+        requestRepository.findByRequesterIdOrderByCreatedDesc(booker.getId());
+        commentRepository.findByItemId(item.getId());
+        commentRepository.findByItemIn(List.of(item));
+
+        List<String> scans = new ArrayList<>();
+        for (String sql : SqlRecorder.STATEMENTS) {
+            String plan = explain(sql);
+            if (plan.contains("Seq Scan")) {
+                scans.add(sql + "\n" + plan);
+            }
+        }
+
+        assertThat(SqlRecorder.STATEMENTS).isNotEmpty();
+        assertThat(scans).isEmpty();
+    }
+
+    private String explain(String sql) {
+        AtomicInteger index = new AtomicInteger();
+        String generic = PARAMETER.matcher(sql).replaceAll(match -> "\\$" + index.incrementAndGet());
+        return jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SET enable_seqscan = off");
+                StringBuilder plan = new StringBuilder();
+                try (ResultSet rs = statement.executeQuery("EXPLAIN (GENERIC_PLAN) " + generic)) {
+                    while (rs.next()) {
+                        plan.append(rs.getString(1)).append('\n');
+                    }
+                }
+                statement.execute("RESET enable_seqscan");
+                return plan.toString();
+            }
+        });
+    }
+
+    public static class SqlRecorder implements StatementInspector {
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            if (sql.startsWith("select") || sql.startsWith("SELECT")) {
+                STATEMENTS.add(sql);
+            }
+            return sql;
+        }
+    }
+}
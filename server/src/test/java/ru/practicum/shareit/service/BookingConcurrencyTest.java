@@ -0,0 +1,110 @@
+package ru.practicum.shareit.service;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.exception.BookingOverlapException;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class BookingConcurrencyTest {
+    private static final int THREADS = 16;
+    private static final int REQUESTS = 400;
+
+    private final BookingService bookingService;
+    private final BookingRepository bookingRepository;
+    private final ItemRepository itemRepository;
+    private final UserRepository userRepository;
+    private final LocalDateTime base = LocalDateTime.of(2030, 1, 1, 0, 0, 0);
+    private final List<Long> itemIds = new ArrayList<>();
+    private User booker;
+
+    @BeforeEach
+    void setData() {
+        User owner = userRepository.save(new User(null, "Owner", "owner@mail.com"));
+        booker = userRepository.save(new User(null, "Booker", "booker@mail.com"));
+        for (int i = 0; i < 3; i++) {
+            itemIds.add(itemRepository.save(new Item(null, "Item " + i, "Description", true, owner, null, null)).getId());
+        }
+    }
+
+    @Test
+    void create_concurrentRequests_shouldNeverOverlap() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch startSignal = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (int i = 0; i < REQUESTS; i++) {
+            results.add(executor.submit(() -> {
+                startSignal.await();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                BookingCreateDto dto = new BookingCreateDto();
+                dto.setItemId(itemIds.get(random.nextInt(itemIds.size())));
+                dto.setStart(base.plusHours(random.nextInt(48)));
+                dto.setEnd(dto.getStart().plusHours(1 + random.nextInt(3)));
+                try {
+                    bookingService.create(booker.getId(), dto);
+                    return true;
+                } catch (BookingOverlapException e) {
+                    return false;
+                }
+            }));
+        }
+        startSignal.countDown();
+        int created = 0;
+        for (Future<Boolean> result : results) {
+            if (result.get()) {
+                created++;
+            }
+        }
+        executor.shutdown();
+
+        Map<Long, List<Booking>> byItem = bookingRepository.findAll().stream()
+                .filter(b -> b.getStatus() == Status.WAITING)
+                .collect(Collectors.groupingBy(b -> b.getItem().getId()));
+        assertThat(byItem.values().stream().mapToInt(List::size).sum()).isEqualTo(created);
+        assertThat(created).isPositive().isLessThan(REQUESTS);
+        for (List<Booking> bookings : byItem.values()) {
+            for (int i = 0; i < bookings.size(); i++) {
+                for (int j = i + 1; j < bookings.size(); j++) {
+                    Booking a = bookings.get(i);
+                    Booking b = bookings.get(j);
+                    assertThat(a.getStart().isBefore(b.getEnd()) && b.getStart().isBefore(a.getEnd()))
+                            .as("bookings %d and %d overlap", a.getId(), b.getId())
+                            .isFalse();
+                }
+            }
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+}
@@ -0,0 +1,71 @@
+package ru.practicum.shareit.service;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.BookingHoldProperties;
+import ru.practicum.shareit.booking.BookingHoldWheel;
+import ru.practicum.shareit.booking.model.BookingHold;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BookingHoldWheelTest {
+    private final BookingHoldWheel wheel = new BookingHoldWheel(new BookingHoldProperties());
+    private final LocalDateTime now = LocalDateTime.now();
+    private final LocalDateTime start = now.plusDays(1);
+    private final LocalDateTime end = start.plusHours(2);
+
+    @Test
+    void advance_shouldExpireHoldAfterItsTicks() {
+        BookingHold hold = addHold(Duration.ofSeconds(3));
+
+        wheel.advance();
+        wheel.advance();
+        assertTrue(wheel.isHeld(1L, start, end, null, now));
+
+        wheel.advance();
+        assertFalse(wheel.isHeld(1L, start, end, null, now));
+        assertTrue(wheel.get(hold.getId(), now).isEmpty());
+    }
+
+    @Test
+    void advance_longHold_shouldSurviveFullWheelRotations() {
+        addHold(Duration.ofSeconds(1026));
+
+        for (int i = 0; i < 1025; i++) {
+            wheel.advance();
+        }
+        assertTrue(wheel.isHeld(1L, start, end, null, now));
+
+        wheel.advance();
+        assertFalse(wheel.isHeld(1L, start, end, null, now));
+    }
+
+    @Test
+    void isHeld_shouldIgnoreOwnHoldExpiredHoldsAndOtherPeriods() {
+        BookingHold hold = addHold(Duration.ofMinutes(5));
+
+        assertFalse(wheel.isHeld(1L, start, end, hold.getId(), now));
+        assertFalse(wheel.isHeld(1L, end, end.plusHours(1), null, now));
+        assertFalse(wheel.isHeld(2L, start, end, null, now));
+        assertFalse(wheel.isHeld(1L, start, end, null, hold.getExpiresAt()));
+    }
+
+    @Test
+    void remove_shouldReleaseHold() {
+        BookingHold hold = addHold(Duration.ofMinutes(5));
+
+        wheel.remove(hold.getId());
+
+        assertFalse(wheel.isHeld(1L, start, end, null, now));
+        assertTrue(wheel.get(hold.getId(), now).isEmpty());
+    }
+
+    private BookingHold addHold(Duration ttl) {
+        BookingHold hold = new BookingHold(UUID.randomUUID(), 1L, 7L, start, end, now.plus(ttl));
+        wheel.add(hold, ttl);
+        return hold;
+    }
+}
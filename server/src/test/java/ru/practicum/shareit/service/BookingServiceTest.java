@@ -2,23 +2,48 @@ package ru.practicum.shareit.service;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.BookingApprovalOutcome;
+import ru.practicum.shareit.booking.BookingHoldProperties;
+import ru.practicum.shareit.booking.BookingHoldWheel;
 import ru.practicum.shareit.booking.BookingRepository;
 import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.ItemLockStripes;
+import ru.practicum.shareit.booking.ItemOccupancyIndex;
 import ru.practicum.shareit.booking.State;
 import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.dto.BookingApprovalDto;
+import ru.practicum.shareit.booking.dto.BookingApprovalResultDto;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.dto.BookingHoldDto;
+import ru.practicum.shareit.booking.dto.BookingOwnership;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.dto.BookingStateCounts;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.outbox.BookingEventType;
+import ru.practicum.shareit.booking.outbox.OutboxService;
 import ru.practicum.shareit.exception.*;
+import ru.practicum.shareit.idempotency.IdempotencyScope;
+import ru.practicum.shareit.idempotency.IdempotencyService;
 import ru.practicum.shareit.item.ItemService;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.summary.ItemBookingSummaryService;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.UserService;
 import ru.practicum.shareit.user.model.User;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -29,6 +54,11 @@ public class BookingServiceTest {
     private final BookingRepository bookingRepository = mock(BookingRepository.class);
     private final UserService userService = mock(UserService.class);
     private final ItemService itemService = mock(ItemService.class);
+    private final ItemBookingSummaryService itemBookingSummaryService = mock(ItemBookingSummaryService.class);
+    private final ItemOccupancyIndex itemOccupancyIndex = mock(ItemOccupancyIndex.class);
+    private final OutboxService outboxService = mock(OutboxService.class);
+    private final IdempotencyService idempotencyService = mock(IdempotencyService.class);
+    private final BookingHoldWheel bookingHoldWheel = new BookingHoldWheel(new BookingHoldProperties());
     private final Long ownerId = 1L;
     private final Long bookerId = 77L;
     private final Long bookingId = 23L;
@@ -52,216 +82,368 @@ public class BookingServiceTest {
 
     @BeforeEach
     void setData() {
-        service = new BookingService(bookingRepository, userService, itemService);
+        service = new BookingService(bookingRepository, userService, itemService, new ItemLockStripes(),
+                itemBookingSummaryService, itemOccupancyIndex, outboxService,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), idempotencyService, bookingHoldWheel,
+                new BookingHoldProperties());
         booker = new User(bookerId, bookerName, email);
         owner = new User(ownerId, ownerName, ownerEmail);
 
         ItemRequest request = new ItemRequest(44L, "Need item", created, booker);
-        item = new Item(itemId, itemName, description, available, owner, request);
+        item = new Item(itemId, itemName, description, available, owner, request, null);
 
         bookingCreateDto = new BookingCreateDto();
         bookingCreateDto.setItemId(itemId);
         bookingCreateDto.setStart(firstDate);
         bookingCreateDto.setEnd(secondDate);
 
-        booking = new Booking(bookingId, item, booker, firstDate, secondDate, Status.WAITING);
+        booking = new Booking(bookingId, item, booker, firstDate, secondDate, Status.WAITING, null);
     }
 
     @Test
     void create() {
         when(userService.getUserIfExistOrElseThrow(bookerId)).thenReturn(booker);
         when(itemService.getItemIfExistOrElseThrow(itemId)).thenReturn(item);
-        when(bookingRepository.save(any(Booking.class))).thenReturn(booking);
+        when(bookingRepository.saveAndFlush(any(Booking.class))).thenReturn(booking);
 
         BookingResponseDto createdBooking = service.create(bookerId, bookingCreateDto);
 
         assertNotNull(createdBooking.getId());
         assertEquals(createdBooking.getItem().getName(), itemName);
         assertEquals(createdBooking.getBooker().getName(), bookerName);
+        verify(itemOccupancyIndex).add(itemId, firstDate, secondDate);
+        verify(outboxService).publish(BookingEventType.CREATED, List.of(booking));
     }
 
     @Test
-    void create_itemNotAvailable_shouldThrowException() {
+    void create_withIdempotencyKey_shouldRememberBooking() {
         when(userService.getUserIfExistOrElseThrow(bookerId)).thenReturn(booker);
         when(itemService.getItemIfExistOrElseThrow(itemId)).thenReturn(item);
-        item.setAvailable(false);
+        when(bookingRepository.saveAndFlush(any(Booking.class))).thenReturn(booking);
 
-        assertThrows(ItemNotAvailableException.class, () -> service.create(bookerId, bookingCreateDto));
+        service.create(bookerId, bookingCreateDto, "key-1");
+
+        verify(idempotencyService).remember(bookerId, IdempotencyScope.BOOKING, "key-1", bookingCreateDto, bookingId);
     }
 
     @Test
-    void approveByOwner() {
-        when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(booking));
-        when(bookingRepository.save(any(Booking.class))).thenReturn(booking);
+    void hold_shouldBlockOtherUsersUntilConfirmed() {
+        User other = new User(5L, "Other", "other@mail.com");
+        when(userService.getUserIfExistOrElseThrow(bookerId)).thenReturn(booker);
+        when(userService.getUserIfExistOrElseThrow(5L)).thenReturn(other);
+        when(itemService.getItemIfExistOrElseThrow(itemId)).thenReturn(item);
+        when(bookingRepository.saveAndFlush(any(Booking.class))).thenReturn(booking);
 
-        BookingResponseDto approvedByOwner = service.approveByOwner(ownerId, bookingId, true);
+        BookingHoldDto hold = service.hold(bookerId, bookingCreateDto, Duration.ofMinutes(5));
 
-        assertEquals(Status.APPROVED, approvedByOwner.getStatus());
+        assertEquals(itemId, hold.getItemId());
+        assertThrows(BookingOverlapException.class, () -> service.create(5L, bookingCreateDto));
+        assertThrows(BookingOverlapException.class, () -> service.hold(5L, bookingCreateDto, null));
+        bookingCreateDto.setHoldId(hold.getId());
+        assertThrows(BookingHoldNotFoundException.class, () -> service.create(5L, bookingCreateDto));
+
+        service.create(bookerId, bookingCreateDto);
+
+        verify(bookingRepository).saveAndFlush(any(Booking.class));
+        assertFalse(bookingHoldWheel.isHeld(itemId, firstDate, secondDate, null, LocalDateTime.now()));
     }
 
     @Test
-    void approveByOwner_reject() {
-        when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(booking));
-        when(bookingRepository.save(any(Booking.class))).thenReturn(booking);
-
-        BookingResponseDto approvedByOwner = service.approveByOwner(ownerId, bookingId, false);
+    void hold_bookedPeriod_shouldThrowException() {
+        when(userService.getUserIfExistOrElseThrow(bookerId)).thenReturn(booker);
+        when(itemService.getItemIfExistOrElseThrow(itemId)).thenReturn(item);
+        when(bookingRepository.existsByItemIdAndStatusInAndStartBeforeAndEndAfter(itemId,
+                List.of(Status.WAITING, Status.APPROVED), secondDate, firstDate)).thenReturn(true);
 
-        assertEquals(Status.REJECTED, approvedByOwner.getStatus());
+        assertThrows(BookingOverlapException.class, () -> service.hold(bookerId, bookingCreateDto, null));
+        assertFalse(bookingHoldWheel.isHeld(itemId, firstDate, secondDate, null, LocalDateTime.now()));
     }
 
     @Test
-    void approveByOwner_alreadyApproved_shouldThrowException() {
-        when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(booking));
-        booking.setStatus(Status.APPROVED);
+    void releaseHold_shouldFreePeriod() {
+        when(userService.getUserIfExistOrElseThrow(bookerId)).thenReturn(booker);
+        when(itemService.getItemIfExistOrElseThrow(itemId)).thenReturn(item);
+        BookingHoldDto hold = service.hold(bookerId, bookingCreateDto, null);
 
-        assertThrows(ValidationException.class, () -> service.approveByOwner(ownerId, bookingId, true));
+        assertThrows(BookingHoldNotFoundException.class, () -> service.releaseHold(ownerId, hold.getId()));
+        service.releaseHold(bookerId, hold.getId());
+
+        assertFalse(bookingHoldWheel.isHeld(itemId, firstDate, secondDate, null, LocalDateTime.now()));
     }
 
     @Test
-    void approveByOwner_userNotOwner_shouldThrowException() {
+    void create_repeatedIdempotencyKey_shouldReturnExistingBooking() {
+        when(idempotencyService.findResourceId(bookerId, IdempotencyScope.BOOKING, "key-1", bookingCreateDto))
+                .thenReturn(Optional.of(bookingId));
         when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(booking));
 
-        assertThrows(UserNotOwnerException.class, () -> service.approveByOwner(bookerId, bookingId, true));
+        BookingResponseDto createdBooking = service.create(bookerId, bookingCreateDto, "key-1");
+
+        assertEquals(bookingId, createdBooking.getId());
+        verify(bookingRepository, never()).saveAndFlush(any(Booking.class));
+        verify(outboxService, never()).publish(any(), anyList());
     }
 
     @Test
-    void getBookingById() {
-        when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(booking));
+    void create_shouldAlwaysCheckOverlapInDatabase() {
+        when(userService.getUserIfExistOrElseThrow(bookerId)).thenReturn(booker);
+        when(itemService.getItemIfExistOrElseThrow(itemId)).thenReturn(item);
+        when(bookingRepository.saveAndFlush(any(Booking.class))).thenReturn(booking);
 
-        BookingResponseDto bookingById = service.getBookingById(bookingId);
+        service.create(bookerId, bookingCreateDto);
 
-        assertEquals(bookingById.getItem().getName(), itemName);
-        assertEquals(bookingById.getBooker().getName(), bookerName);
+        verify(bookingRepository).existsByItemIdAndStatusInAndStartBeforeAndEndAfter(itemId,
+                List.of(Status.WAITING, Status.APPROVED), secondDate, firstDate);
+        verify(itemOccupancyIndex).add(itemId, firstDate, secondDate);
     }
 
     @Test
-    void getBookingById_notExist_shouldThrowException() {
-        when(bookingRepository.findById(anyLong())).thenReturn(Optional.empty());
+    void create_overlapping_shouldThrowException() {
+        when(userService.getUserIfExistOrElseThrow(bookerId)).thenReturn(booker);
+        when(itemService.getItemIfExistOrElseThrow(itemId)).thenReturn(item);
+        when(bookingRepository.existsByItemIdAndStatusInAndStartBeforeAndEndAfter(itemId,
+                List.of(Status.WAITING, Status.APPROVED), secondDate, firstDate)).thenReturn(true);
 
-        assertThrows(BookingNotFoundException.class, () -> service.getBookingById(888L));
+        assertThrows(BookingOverlapException.class, () -> service.create(bookerId, bookingCreateDto));
+        verify(bookingRepository, never()).saveAndFlush(any(Booking.class));
     }
 
     @Test
-    void getAllBookerBookings() {
-        when(bookingRepository.findByBookerId(bookerId)).thenReturn(List.of(booking));
+    void createAll_shouldSaveFreeRowsAndReportFailures() {
+        Item hidden = new Item(3L, "Hidden", description, false, owner, null, null);
+        BookingCreateDto overlapsExisting = new BookingCreateDto();
+        overlapsExisting.setItemId(itemId);
+        overlapsExisting.setStart(secondDate);
+        overlapsExisting.setEnd(secondDate.plusHours(2));
+        BookingCreateDto overlapsBatch = new BookingCreateDto();
+        overlapsBatch.setItemId(itemId);
+        overlapsBatch.setStart(firstDate.minusMinutes(30));
+        overlapsBatch.setEnd(firstDate.plusMinutes(30));
+        BookingCreateDto unknownItem = new BookingCreateDto();
+        unknownItem.setItemId(404L);
+        unknownItem.setStart(firstDate);
+        unknownItem.setEnd(secondDate);
+        BookingCreateDto notAvailable = new BookingCreateDto();
+        notAvailable.setItemId(3L);
+        notAvailable.setStart(firstDate);
+        notAvailable.setEnd(secondDate);
+        Booking existing = new Booking(5L, item, owner, secondDate.plusHours(1), secondDate.plusHours(3),
+                Status.APPROVED, null);
+        when(userService.getUserIfExistOrElseThrow(bookerId)).thenReturn(booker);
+        when(itemService.getItemsByIds(Set.of(itemId, 404L, 3L))).thenReturn(Map.of(itemId, item, 3L, hidden));
+        when(bookingRepository.findByItemIdInAndStatusInAndStartBeforeAndEndAfter(Set.of(itemId, 3L),
+                List.of(Status.WAITING, Status.APPROVED), secondDate.plusHours(2), firstDate.minusMinutes(30)))
+                .thenReturn(List.of(existing));
+        when(bookingRepository.saveAllAndFlush(anyList())).thenReturn(List.of(booking));
+
+        List<BookingBatchResultDto> results = service.createAll(bookerId,
+                List.of(bookingCreateDto, overlapsExisting, overlapsBatch, unknownItem, notAvailable));
+
+        assertEquals(5, results.size());
+        assertEquals(bookingId, results.get(0).getBooking().getId());
+        assertNull(results.get(0).getError());
+        for (int i = 1; i < results.size(); i++) {
+            assertEquals(i, results.get(i).getIndex());
+            assertNull(results.get(i).getBooking());
+            assertNotNull(results.get(i).getError());
+        }
+        verify(bookingRepository).saveAllAndFlush(argThat(saved -> ((List<Booking>) saved).size() == 1));
+    }
+
+    @Test
+    void createAll_concurrentOverlap_shouldRetryRowsOneByOne() {
+        BookingCreateDto later = new BookingCreateDto();
+        later.setItemId(itemId);
+        later.setStart(secondDate.plusDays(1));
+        later.setEnd(secondDate.plusDays(2));
+        DataIntegrityViolationException overlap = new DataIntegrityViolationException("overlap",
+                new RuntimeException("violates exclusion constraint \"bookings_no_overlap\""));
+        when(userService.getUserIfExistOrElseThrow(bookerId)).thenReturn(booker);
+        when(itemService.getItemsByIds(Set.of(itemId))).thenReturn(Map.of(itemId, item));
+        when(bookingRepository.saveAllAndFlush(anyList()))
+                .thenThrow(overlap)
+                .thenReturn(List.of(booking))
+                .thenThrow(overlap);
+
+        List<BookingBatchResultDto> results = service.createAll(bookerId, List.of(bookingCreateDto, later));
+
+        assertEquals(bookingId, results.get(0).getBooking().getId());
+        assertEquals(1, results.get(1).getIndex());
+        assertNull(results.get(1).getBooking());
+        assertNotNull(results.get(1).getError());
+        verify(bookingRepository, times(3)).saveAllAndFlush(anyList());
+    }
 
-        List<BookingResponseDto> allBookerBookings = service.getAllBookerBookings(bookerId, State.ALL);
+    @Test
+    void create_itemNotAvailable_shouldThrowException() {
+        when(userService.getUserIfExistOrElseThrow(bookerId)).thenReturn(booker);
+        when(itemService.getItemIfExistOrElseThrow(itemId)).thenReturn(item);
+        item.setAvailable(false);
 
-        assertEquals(itemName, allBookerBookings.getFirst().getItem().getName());
-        assertEquals(bookerName, allBookerBookings.getFirst().getBooker().getName());
+        assertThrows(ItemNotAvailableException.class, () -> service.create(bookerId, bookingCreateDto));
     }
 
     @Test
-    void getAllBookerBookings_stateCurrent() {
-        when(bookingRepository.findAllByBookerIdAndStartBeforeAndEndAfterOrderByStartDesc(anyLong(), any(LocalDateTime.class), any(LocalDateTime.class)))
-                .thenReturn(List.of(booking));
+    void approveByOwner() {
+        when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(booking));
+        when(bookingRepository.updateStatusIfWaiting(List.of(bookingId), Status.APPROVED)).thenReturn(1);
 
-        List<BookingResponseDto> allBookerBookings = service.getAllBookerBookings(bookerId, State.CURRENT);
+        BookingResponseDto approvedByOwner = service.approveByOwner(ownerId, bookingId, true);
 
-        assertEquals(itemName, allBookerBookings.getFirst().getItem().getName());
-        assertEquals(bookerName, allBookerBookings.getFirst().getBooker().getName());
+        assertEquals(Status.APPROVED, approvedByOwner.getStatus());
+        verify(itemBookingSummaryService).recordApproved(List.of(booking));
+        verify(outboxService).publish(BookingEventType.APPROVED, List.of(booking));
     }
 
     @Test
-    void getAllBookerBookings_statePast() {
-        when(bookingRepository.findAllByBookerIdAndEndBeforeOrderByStartDesc(anyLong(), any(LocalDateTime.class))).thenReturn(List.of(booking));
+    void approveByOwner_reject() {
+        when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(booking));
+        when(bookingRepository.updateStatusIfWaiting(List.of(bookingId), Status.REJECTED)).thenReturn(1);
 
-        List<BookingResponseDto> allBookerBookings = service.getAllBookerBookings(bookerId, State.PAST);
+        BookingResponseDto approvedByOwner = service.approveByOwner(ownerId, bookingId, false);
 
-        assertEquals(itemName, allBookerBookings.getFirst().getItem().getName());
-        assertEquals(bookerName, allBookerBookings.getFirst().getBooker().getName());
+        assertEquals(Status.REJECTED, approvedByOwner.getStatus());
+        verify(itemBookingSummaryService, never()).recordApproved(anyList());
+        verify(itemOccupancyIndex).invalidate(itemId);
+        verify(outboxService).publish(BookingEventType.REJECTED, List.of(booking));
     }
 
     @Test
-    void getAllBookerBookings_stateFuture() {
-        when(bookingRepository.findAllByBookerIdAndStartAfterOrderByStartDesc(anyLong(), any(LocalDateTime.class))).thenReturn(List.of(booking));
+    void approveByOwner_concurrentlyChanged_shouldThrowException() {
+        when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(booking));
+        when(bookingRepository.updateStatusIfWaiting(List.of(bookingId), Status.APPROVED)).thenReturn(0);
 
-        List<BookingResponseDto> allBookerBookings = service.getAllBookerBookings(bookerId, State.FUTURE);
+        assertThrows(ValidationException.class, () -> service.approveByOwner(ownerId, bookingId, true));
+        verify(bookingRepository, never()).saveAndFlush(any(Booking.class));
+    }
 
-        assertEquals(itemName, allBookerBookings.getFirst().getItem().getName());
-        assertEquals(bookerName, allBookerBookings.getFirst().getBooker().getName());
+    @Test
+    void approveAllByOwner_shouldReportOutcomePerId() {
+        BookingApprovalDto approvalDto = new BookingApprovalDto();
+        approvalDto.setBookingIds(List.of(1L, 2L, 3L, 4L, 5L, 1L));
+        approvalDto.setApproved(false);
+        when(bookingRepository.findOwnershipByIdIn(List.of(1L, 2L, 3L, 4L, 5L))).thenReturn(List.of(
+                new BookingOwnership(1L, ownerId, Status.WAITING),
+                new BookingOwnership(2L, ownerId, Status.APPROVED),
+                new BookingOwnership(3L, bookerId, Status.WAITING),
+                new BookingOwnership(5L, ownerId, Status.WAITING)));
+        when(bookingRepository.updateStatusIfWaiting(List.of(1L), Status.REJECTED)).thenReturn(1);
+        when(bookingRepository.updateStatusIfWaiting(List.of(5L), Status.REJECTED)).thenReturn(0);
+        when(bookingRepository.findOwnershipByIdIn(List.of(5L))).thenReturn(List.of(
+                new BookingOwnership(5L, ownerId, Status.REJECTED)));
+        when(bookingRepository.findAllById(List.of(1L))).thenReturn(List.of(booking));
+
+        List<BookingApprovalResultDto> results = service.approveAllByOwner(ownerId, approvalDto);
+
+        assertEquals(List.of(
+                new BookingApprovalResultDto(1L, BookingApprovalOutcome.UPDATED, Status.REJECTED),
+                new BookingApprovalResultDto(2L, BookingApprovalOutcome.NOT_WAITING, Status.APPROVED),
+                new BookingApprovalResultDto(3L, BookingApprovalOutcome.NOT_OWNER, null),
+                new BookingApprovalResultDto(4L, BookingApprovalOutcome.NOT_FOUND, null),
+                new BookingApprovalResultDto(5L, BookingApprovalOutcome.NOT_WAITING, Status.REJECTED)), results);
+        verify(outboxService).publish(BookingEventType.REJECTED, List.of(booking));
     }
 
     @Test
-    void getAllBookerBookings_stateRejected() {
-        when(bookingRepository.findByBookerIdAndStatusEqualsOrderByStartDesc(anyLong(), anyString())).thenReturn(List.of(booking));
+    void approveAllByOwner_nothingToUpdate_shouldSkipUpdate() {
+        BookingApprovalDto approvalDto = new BookingApprovalDto();
+        approvalDto.setBookingIds(List.of(bookingId));
+        approvalDto.setApproved(true);
+        when(bookingRepository.findOwnershipByIdIn(List.of(bookingId))).thenReturn(List.of());
 
-        List<BookingResponseDto> allBookerBookings = service.getAllBookerBookings(bookerId, State.REJECTED);
+        List<BookingApprovalResultDto> results = service.approveAllByOwner(ownerId, approvalDto);
 
-        assertEquals(itemName, allBookerBookings.getFirst().getItem().getName());
-        assertEquals(bookerName, allBookerBookings.getFirst().getBooker().getName());
+        assertEquals(BookingApprovalOutcome.NOT_FOUND, results.getFirst().getOutcome());
+        verify(bookingRepository, never()).updateStatusIfWaiting(anyList(), any(Status.class));
     }
 
     @Test
-    void getAllBookerBookings_stateWaiting() {
-        when(bookingRepository.findByBookerIdAndStatusEqualsOrderByStartDesc(anyLong(), anyString())).thenReturn(List.of(booking));
-
-        List<BookingResponseDto> allBookerBookings = service.getAllBookerBookings(bookerId, State.WAITING);
+    void approveByOwner_alreadyApproved_shouldThrowException() {
+        when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(booking));
+        booking.setStatus(Status.APPROVED);
 
-        assertEquals(itemName, allBookerBookings.getFirst().getItem().getName());
-        assertEquals(bookerName, allBookerBookings.getFirst().getBooker().getName());
+        assertThrows(ValidationException.class, () -> service.approveByOwner(ownerId, bookingId, true));
     }
 
+    @Test
+    void approveByOwner_userNotOwner_shouldThrowException() {
+        when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(booking));
+
+        assertThrows(UserNotOwnerException.class, () -> service.approveByOwner(bookerId, bookingId, true));
+    }
 
     @Test
-    void getAllOwnerBookings() {
-        when(bookingRepository.findAllByItemOwnerIdOrderByStartDesc(ownerId)).thenReturn(List.of(booking));
+    void getBookingById() {
+        when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(booking));
 
-        List<BookingResponseDto> allOwnerBookings = service.getAllOwnerBookings(ownerId, State.ALL);
+        BookingResponseDto bookingById = service.getBookingById(bookingId);
 
-        assertEquals(itemName, allOwnerBookings.getFirst().getItem().getName());
-        assertEquals(bookerName, allOwnerBookings.getFirst().getBooker().getName());
+        assertEquals(bookingById.getItem().getName(), itemName);
+        assertEquals(bookingById.getBooker().getName(), bookerName);
     }
 
     @Test
-    void getAllOwnerBookings_stateCurrent() {
-        when(bookingRepository.findAllByItemOwnerIdAndStartBeforeAndEndAfterOrderByStartDesc(anyLong(), any(LocalDateTime.class), any(LocalDateTime.class)))
-                .thenReturn(List.of(booking));
-
-        List<BookingResponseDto> allOwnerBookings = service.getAllOwnerBookings(ownerId, State.CURRENT);
+    void getBookingById_notExist_shouldThrowException() {
+        when(bookingRepository.findById(anyLong())).thenReturn(Optional.empty());
 
-        assertEquals(itemName, allOwnerBookings.getFirst().getItem().getName());
-        assertEquals(bookerName, allOwnerBookings.getFirst().getBooker().getName());
+        assertThrows(BookingNotFoundException.class, () -> service.getBookingById(888L));
     }
 
     @Test
-    void getAllOwnerBookings_statePast() {
-        when(bookingRepository.findAllByItemOwnerIdAndEndBeforeOrderByStartDesc(anyLong(), any(LocalDateTime.class))).thenReturn(List.of(booking));
+    void getAllBookerBookings() {
+        when(bookingRepository.findWithItemAndBooker(ArgumentMatchers.<Specification<Booking>>any(), any(Sort.class),
+                eq(0L), eq(20)))
+                .thenReturn(List.of(booking));
 
-        List<BookingResponseDto> allOwnerBookings = service.getAllOwnerBookings(bookerId, State.PAST);
+        List<BookingResponseDto> allBookerBookings = service.getAllBookerBookings(bookerId, State.ALL, 0, 20, null);
 
-        assertEquals(itemName, allOwnerBookings.getFirst().getItem().getName());
-        assertEquals(bookerName, allOwnerBookings.getFirst().getBooker().getName());
+        assertEquals(itemName, allBookerBookings.getFirst().getItem().getName());
+        assertEquals(bookerName, allBookerBookings.getFirst().getBooker().getName());
+        verify(bookingRepository, never()).findById(anyLong());
     }
 
     @Test
-    void getAllOwnerBookings_stateFuture() {
-        when(bookingRepository.findAllByItemOwnerIdAndStartAfterOrderByStartDesc(anyLong(), any(LocalDateTime.class))).thenReturn(List.of(booking));
+    void getAllBookerBookings_afterCursor_shouldNotLoadAnchor() {
+        when(bookingRepository.findWithItemAndBooker(ArgumentMatchers.<Specification<Booking>>any(), any(Sort.class),
+                eq(0L), eq(20)))
+                .thenReturn(List.of(booking));
 
-        List<BookingResponseDto> allOwnerBookings = service.getAllOwnerBookings(bookerId, State.FUTURE);
+        List<BookingResponseDto> allBookerBookings = service.getAllBookerBookings(bookerId, State.PAST, 0, 20, 99L);
 
-        assertEquals(itemName, allOwnerBookings.getFirst().getItem().getName());
-        assertEquals(bookerName, allOwnerBookings.getFirst().getBooker().getName());
+        assertEquals(bookingId, allBookerBookings.getFirst().getId());
+        verify(bookingRepository, never()).findById(anyLong());
     }
 
     @Test
-    void getAllOwnerBookings_stateRejected() {
-        when(bookingRepository.findAllByItemOwnerIdAndStatusEqualsOrderByStartDesc(anyLong(), anyString())).thenReturn(List.of(booking));
+    void getAllBookerBookings_zeroSize_shouldThrowException() {
+        assertThrows(WrongPaginationException.class,
+                () -> service.getAllBookerBookings(bookerId, State.ALL, 0, 0, null));
+        verify(bookingRepository, never()).findWithItemAndBooker(any(), any(), anyLong(), anyInt());
+    }
 
-        List<BookingResponseDto> allOwnerBookings = service.getAllOwnerBookings(bookerId, State.REJECTED);
+    @Test
+    void countOwnerBookings_shouldReturnEveryState() {
+        when(bookingRepository.countStatesByOwnerId(anyLong(), any(LocalDateTime.class)))
+                .thenReturn(new BookingStateCounts(6L, 1L, 2L, 3L, 1L, 0L));
 
-        assertEquals(itemName, allOwnerBookings.getFirst().getItem().getName());
-        assertEquals(bookerName, allOwnerBookings.getFirst().getBooker().getName());
+        Map<State, Long> counts = service.countOwnerBookings(ownerId);
+
+        assertEquals(List.of(State.values()), List.copyOf(counts.keySet()));
+        assertEquals(List.of(6L, 1L, 2L, 3L, 1L, 0L), List.copyOf(counts.values()));
+        verify(userService).checkUserExists(ownerId);
     }
 
     @Test
-    void getAllOwnerBookings_stateWaiting() {
-        when(bookingRepository.findAllByItemOwnerIdAndStatusEqualsOrderByStartDesc(anyLong(), anyString())).thenReturn(List.of(booking));
+    void getAllOwnerBookings() {
+        when(bookingRepository.findWithItemAndBooker(ArgumentMatchers.<Specification<Booking>>any(), any(Sort.class),
+                eq(0L), eq(20)))
+                .thenReturn(List.of(booking));
 
-        List<BookingResponseDto> allOwnerBookings = service.getAllOwnerBookings(bookerId, State.WAITING);
+        List<BookingResponseDto> allOwnerBookings = service.getAllOwnerBookings(ownerId, State.WAITING, 0, 20, null);
 
         assertEquals(itemName, allOwnerBookings.getFirst().getItem().getName());
         assertEquals(bookerName, allOwnerBookings.getFirst().getBooker().getName());
+        verify(userService).checkUserExists(ownerId);
     }
 
 }
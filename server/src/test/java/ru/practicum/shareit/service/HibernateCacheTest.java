@@ -0,0 +1,104 @@
+package ru.practicum.shareit.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.exception.UserNotFoundException;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.UserService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = "shareit.hibernate-cache.enabled=true")
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class HibernateCacheTest {
+    private final UserService userService;
+    private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final ItemRequestRepository itemRequestRepository;
+    private final EntityManagerFactory entityManagerFactory;
+    private final MeterRegistry meterRegistry;
+
+    @Test
+    void getUserById_shouldBeServedFromSecondLevelCache() {
+        Long userId = userService.create(userDto("Name", "name@mail.com")).getId();
+        Statistics statistics = statistics();
+
+        userService.getUserById(userId);
+        userService.getUserById(userId);
+
+        assertThat(statistics.getSecondLevelCacheHitCount()).isEqualTo(2);
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(meterRegistry.find("cache.gets").tag("cache", "users").meters()).isNotEmpty();
+    }
+
+    @Test
+    void updateAndDelete_shouldInvalidateCachedUser() {
+        Long userId = userService.create(userDto("Name", "name@mail.com")).getId();
+        userService.getUserById(userId);
+
+        userService.update(userDto("Updated", null), userId);
+
+        assertThat(userService.getUserById(userId).getName()).isEqualTo("Updated");
+
+        userService.delete(userId);
+
+        assertThrows(UserNotFoundException.class, () -> userService.getUserById(userId));
+    }
+
+    @Test
+    void delete_shouldEvictCascadedItemsAndRequests() {
+        Long ownerId = userService.create(userDto("Owner", "owner@mail.com")).getId();
+        Long otherId = userService.create(userDto("Other", "other@mail.com")).getId();
+        User owner = userRepository.findById(ownerId).orElseThrow();
+        Long itemId = itemRepository.save(new Item(null, "Item", "Description", true, owner, null, null)).getId();
+        Long requestId = itemRequestRepository.save(new ItemRequest(null, "Description", LocalDateTime.now(), owner))
+                .getId();
+        assertThat(itemRequestRepository.findAllByRequesterIdNotOrderByCreatedDesc(otherId)).hasSize(1);
+        Statistics statistics = statistics();
+        assertThat(itemRepository.findById(itemId)).isPresent();
+        assertThat(statistics.getSecondLevelCacheHitCount()).isEqualTo(1);
+
+        userService.delete(ownerId);
+
+        assertThat(itemRepository.findById(itemId)).isEmpty();
+        assertThat(itemRequestRepository.findById(requestId)).isEmpty();
+        assertThat(itemRequestRepository.findAllByRequesterIdNotOrderByCreatedDesc(otherId)).isEmpty();
+    }
+
+    @AfterEach
+    void tearDown() {
+        itemRepository.deleteAll();
+        itemRequestRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    private Statistics statistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+
+    private UserDto userDto(String name, String email) {
+        UserDto userDto = new UserDto();
+        userDto.setName(name);
+        userDto.setEmail(email);
+        return userDto;
+    }
+}
@@ -0,0 +1,66 @@
+package ru.practicum.shareit.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.exception.IdempotencyConflictException;
+import ru.practicum.shareit.idempotency.IdempotencyKey;
+import ru.practicum.shareit.idempotency.IdempotencyKeyId;
+import ru.practicum.shareit.idempotency.IdempotencyKeyRepository;
+import ru.practicum.shareit.idempotency.IdempotencyProperties;
+import ru.practicum.shareit.idempotency.IdempotencyScope;
+import ru.practicum.shareit.idempotency.IdempotencyService;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class IdempotencyServiceTest {
+    private final IdempotencyKeyRepository idempotencyKeyRepository = mock(IdempotencyKeyRepository.class);
+    private final IdempotencyService service = new IdempotencyService(idempotencyKeyRepository,
+            new IdempotencyProperties(), new ObjectMapper().registerModule(new JavaTimeModule()));
+    private final IdempotencyKeyId id = new IdempotencyKeyId(1L, IdempotencyScope.BOOKING, "key-1");
+    private final LocalDateTime start = LocalDateTime.of(2030, 1, 1, 10, 0, 0);
+    private BookingCreateDto request;
+    private String storedHash;
+
+    @BeforeEach
+    void setData() {
+        request = bookingCreateDto(start);
+        service.remember(1L, IdempotencyScope.BOOKING, "key-1", request, 10L);
+        ArgumentCaptor<String> hash = ArgumentCaptor.forClass(String.class);
+        verify(idempotencyKeyRepository).insert(eq(1L), eq("BOOKING"), eq("key-1"), eq(10L), hash.capture(),
+                any(LocalDateTime.class));
+        storedHash = hash.getValue();
+        when(idempotencyKeyRepository.findById(id))
+                .thenReturn(Optional.of(new IdempotencyKey(id, 10L, storedHash, LocalDateTime.now())));
+    }
+
+    @Test
+    void findResourceId_samePayload_shouldReturnResource() {
+        assertEquals(64, storedHash.length());
+        assertEquals(Optional.of(10L),
+                service.findResourceId(1L, IdempotencyScope.BOOKING, "key-1", bookingCreateDto(start)));
+    }
+
+    @Test
+    void findResourceId_otherPayload_shouldThrowConflict() {
+        assertThrows(IdempotencyConflictException.class,
+                () -> service.findResourceId(1L, IdempotencyScope.BOOKING, "key-1", bookingCreateDto(start.plusDays(1))));
+    }
+
+    private static BookingCreateDto bookingCreateDto(LocalDateTime start) {
+        BookingCreateDto dto = new BookingCreateDto();
+        dto.setItemId(2L);
+        dto.setStart(start);
+        dto.setEnd(start.plusHours(2));
+        return dto;
+    }
+}
@@ -0,0 +1,130 @@
+package ru.practicum.shareit.service;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.dto.BookingApprovalDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.CommentRepository;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemWithDateDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemBookingSummary;
+import ru.practicum.shareit.item.summary.ItemBookingSummaryReconciler;
+import ru.practicum.shareit.item.summary.ItemBookingSummaryRepository;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class ItemBookingSummaryTest {
+    private final ItemService itemService;
+    private final BookingService bookingService;
+    private final ItemBookingSummaryReconciler reconciler;
+    private final ItemBookingSummaryRepository summaryRepository;
+    private final BookingRepository bookingRepository;
+    private final CommentRepository commentRepository;
+    private final ItemRepository itemRepository;
+    private final UserRepository userRepository;
+    private final LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+    private User owner;
+    private User booker;
+    private Long itemId;
+
+    @BeforeEach
+    void setData() {
+        owner = userRepository.save(new User(null, "Owner", "owner@mail.com"));
+        booker = userRepository.save(new User(null, "Booker", "booker@mail.com"));
+        ItemDto itemDto = new ItemDto();
+        itemDto.setName("Item");
+        itemDto.setDescription("Description");
+        itemDto.setAvailable(true);
+        itemId = itemService.create(owner.getId(), itemDto).getId();
+    }
+
+    @Test
+    void approveAndComment_shouldUpdateSummary() {
+        Booking past = addBooking(now.minusDays(3), now.minusDays(2));
+        Booking future = addBooking(now.plusDays(2), now.plusDays(3));
+        Booking later = addBooking(now.plusDays(5), now.plusDays(6));
+
+        bookingService.approveByOwner(owner.getId(), past.getId(), true);
+        BookingApprovalDto approvalDto = new BookingApprovalDto();
+        approvalDto.setBookingIds(List.of(later.getId(), future.getId()));
+        approvalDto.setApproved(true);
+        bookingService.approveAllByOwner(owner.getId(), approvalDto);
+        CommentDto commentDto = new CommentDto();
+        commentDto.setText("Comment");
+        itemService.createComment(booker.getId(), itemId, commentDto);
+
+        ItemBookingSummary summary = summaryRepository.findById(itemId).orElseThrow();
+        assertThat(summary.getNextBookingStart()).isEqualTo(future.getStart());
+        assertThat(summary.getLastBookingEnd()).isEqualTo(past.getEnd());
+        assertThat(summary.getApprovedCount()).isEqualTo(3);
+        assertThat(summary.getCommentCount()).isEqualTo(1);
+        ItemWithDateDto item = itemService.getAllItems(owner.getId()).getFirst();
+        assertThat(item.getNextBooking()).isEqualTo(future.getStart());
+        assertThat(item.getLastBooking()).isEqualTo(past.getEnd());
+    }
+
+    @Test
+    void getAllItems_nextBookingStarted_shouldRepairSummary() {
+        Booking started = addBooking(now.minusHours(1), now.plusHours(1));
+        Booking future = addBooking(now.plusDays(1), now.plusDays(2));
+        started.setStatus(Status.APPROVED);
+        future.setStatus(Status.APPROVED);
+        bookingRepository.saveAll(List.of(started, future));
+        summaryRepository.save(new ItemBookingSummary(itemId, started.getStart(), null, 2, 0));
+
+        ItemWithDateDto item = itemService.getAllItems(owner.getId()).getFirst();
+
+        assertThat(item.getNextBooking()).isEqualTo(future.getStart());
+        assertThat(item.getLastBooking()).isEqualTo(started.getEnd());
+        assertThat(summaryRepository.findById(itemId).orElseThrow().getNextBookingStart())
+                .isEqualTo(future.getStart());
+    }
+
+    @Test
+    void reconcile_shouldRepairDriftedAndMissingSummaries() {
+        Booking future = addBooking(now.plusDays(1), now.plusDays(2));
+        future.setStatus(Status.APPROVED);
+        bookingRepository.save(future);
+        Item other = itemRepository.save(new Item(null, "Other", "Description", true, owner, null, null));
+
+        reconciler.reconcile();
+
+        ItemBookingSummary repaired = summaryRepository.findById(itemId).orElseThrow();
+        assertThat(repaired.getNextBookingStart()).isEqualTo(future.getStart());
+        assertThat(repaired.getApprovedCount()).isEqualTo(1);
+        assertThat(summaryRepository.findById(other.getId())).isPresent();
+    }
+
+    @AfterEach
+    void tearDown() {
+        commentRepository.deleteAll();
+        bookingRepository.deleteAll();
+        summaryRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    private Booking addBooking(LocalDateTime start, LocalDateTime end) {
+        Item item = itemRepository.findById(itemId).orElseThrow();
+        return bookingRepository.save(new Booking(null, item, booker, start, end, Status.WAITING, null));
+    }
+}
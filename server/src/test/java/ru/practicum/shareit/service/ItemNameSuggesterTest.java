@@ -0,0 +1,88 @@
+package ru.practicum.shareit.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemNameSuggester;
+import ru.practicum.shareit.item.search.SearchProperties;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ItemNameSuggesterTest {
+    private final ItemRepository itemRepository = mock(ItemRepository.class);
+    private final SearchProperties searchProperties = new SearchProperties();
+    private final User owner = new User(1L, "Name", "name@mail.com");
+    private ItemNameSuggester suggester;
+    private Item drill;
+
+    @BeforeEach
+    void setData() {
+        searchProperties.setSuggestLimit(2);
+        suggester = new ItemNameSuggester(itemRepository, searchProperties);
+        drill = new Item(1L, "Дрель", "Аккумуляторная дрель", true, owner, null, null);
+        when(itemRepository.findByAvailableTrue()).thenReturn(List.of(
+                drill,
+                new Item(2L, "Дрель ударная", "Мощная", true, owner, null, null),
+                new Item(3L, "Дрель ударная", "Ещё одна", true, owner, null, null),
+                new Item(4L, "Доска", "Гладильная", true, owner, null, null)));
+        suggester.build();
+    }
+
+    @Test
+    void suggest_shouldReturnMostPopularCompletions() {
+        assertEquals(List.of("Дрель ударная", "Дрель"), suggester.suggest("ДР", 10));
+        assertEquals(List.of("Дрель ударная"), suggester.suggest("д", 1));
+        assertEquals(List.of("Доска"), suggester.suggest("до", 10));
+        assertTrue(suggester.suggest("пила", 10).isEmpty());
+    }
+
+    @Test
+    void put_shouldMoveRenamedAndHideUnavailableItems() {
+        drill.setName("Пила");
+        suggester.put(drill);
+        Item board = new Item(4L, "Доска", "Гладильная", false, owner, null, null);
+        suggester.put(board);
+
+        assertEquals(List.of("Дрель ударная"), suggester.suggest("дрель", 10));
+        assertEquals(List.of("Пила"), suggester.suggest("п", 10));
+        assertTrue(suggester.suggest("до", 10).isEmpty());
+    }
+
+    @Test
+    void put_rolledBack_shouldKeepSuggestionsUnchanged() {
+        drill.setName("Пила");
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            suggester.put(drill);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertTrue(suggester.suggest("п", 10).isEmpty());
+        assertEquals(List.of("Дрель ударная", "Дрель"), suggester.suggest("дрель", 10));
+    }
+
+    @Test
+    void build_shouldKeepNamesPutWhileLoading() {
+        Item staleDrill = new Item(1L, "Дрель", "Аккумуляторная дрель", true, owner, null, null);
+        drill.setName("Пила");
+        when(itemRepository.findByAvailableTrue()).thenAnswer(invocation -> {
+            suggester.put(drill);
+            return List.of(staleDrill);
+        });
+
+        suggester.build();
+
+        assertEquals(List.of("Пила"), suggester.suggest("п", 10));
+        assertEquals(List.of("Дрель ударная"), suggester.suggest("дрель", 10));
+    }
+}
@@ -0,0 +1,116 @@
+package ru.practicum.shareit.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.ItemLockStripes;
+import ru.practicum.shareit.booking.ItemOccupancyIndex;
+import ru.practicum.shareit.booking.ItemOccupancyProperties;
+import ru.practicum.shareit.booking.dto.BookingPeriod;
+import ru.practicum.shareit.item.dto.ItemCalendarSlotDto;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+public class ItemOccupancyIndexTest {
+    private final BookingRepository bookingRepository = mock(BookingRepository.class);
+    private final Long itemId = 1L;
+    private final LocalDateTime day = LocalDateTime.of(2030, 1, 1, 0, 0, 0);
+    private final ItemOccupancyProperties properties = new ItemOccupancyProperties();
+    private ItemOccupancyIndex index;
+
+    @BeforeEach
+    void setData() {
+        index = new ItemOccupancyIndex(bookingRepository, new ItemLockStripes(), properties);
+        when(bookingRepository.findPeriodsByItemIdAndStatusIn(eq(itemId), anyList())).thenReturn(List.of(
+                new BookingPeriod(day.withHour(10).withMinute(15), day.withHour(12)),
+                new BookingPeriod(day.withHour(23), day.plusDays(1).withHour(1))));
+    }
+
+    @Test
+    void add_shouldMarkHoursOfLoadedItem() {
+        assertFalse(isBusy(day.withHour(14)));
+
+        index.add(itemId, day.withHour(14).withMinute(30), day.withHour(14).withMinute(45));
+
+        assertTrue(isBusy(day.withHour(14)));
+        verify(bookingRepository, times(1)).findPeriodsByItemIdAndStatusIn(eq(itemId), anyList());
+    }
+
+    @Test
+    void add_insideTransaction_shouldWaitForCommit() {
+        assertFalse(isBusy(day.withHour(14)));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            index.add(itemId, day.withHour(14), day.withHour(15));
+            assertFalse(isBusy(day.withHour(14)));
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertTrue(isBusy(day.withHour(14)));
+    }
+
+    @Test
+    void add_rolledBack_shouldNotMarkHours() {
+        assertFalse(isBusy(day.withHour(14)));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            index.add(itemId, day.withHour(14), day.withHour(15));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertFalse(isBusy(day.withHour(14)));
+    }
+
+    @Test
+    void invalidate_shouldReloadFromRepository() {
+        assertTrue(isBusy(day.withHour(10)));
+        when(bookingRepository.findPeriodsByItemIdAndStatusIn(eq(itemId), anyList())).thenReturn(List.of());
+
+        index.invalidate(itemId);
+
+        assertFalse(isBusy(day.withHour(10)));
+        verify(bookingRepository, times(2)).findPeriodsByItemIdAndStatusIn(eq(itemId), anyList());
+    }
+
+    @Test
+    void expiredItem_shouldReloadFromRepository() {
+        properties.setTtl(Duration.ZERO);
+        assertTrue(isBusy(day.withHour(10)));
+        when(bookingRepository.findPeriodsByItemIdAndStatusIn(eq(itemId), anyList())).thenReturn(List.of());
+
+        assertFalse(isBusy(day.withHour(10)));
+        verify(bookingRepository, times(2)).findPeriodsByItemIdAndStatusIn(eq(itemId), anyList());
+    }
+
+    @Test
+    void getCalendar_shouldMergeHoursIntoIntervals() {
+        List<ItemCalendarSlotDto> calendar = index.getCalendar(itemId, day.withHour(9).withMinute(30),
+                day.plusDays(1).withHour(3));
+
+        assertEquals(List.of(
+                new ItemCalendarSlotDto(day.withHour(9).withMinute(30), day.withHour(10), false),
+                new ItemCalendarSlotDto(day.withHour(10), day.withHour(12), true),
+                new ItemCalendarSlotDto(day.withHour(12), day.withHour(23), false),
+                new ItemCalendarSlotDto(day.withHour(23), day.plusDays(1).withHour(1), true),
+                new ItemCalendarSlotDto(day.plusDays(1).withHour(1), day.plusDays(1).withHour(3), false)), calendar);
+    }
+
+    private boolean isBusy(LocalDateTime hour) {
+        return index.getCalendar(itemId, hour, hour.plusHours(1)).getFirst().isBusy();
+    }
+}
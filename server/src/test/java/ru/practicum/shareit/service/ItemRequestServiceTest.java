@@ -49,7 +49,7 @@ public class ItemRequestServiceTest {
 
         itemRequestDto = new ItemRequestDto(itemRequestId, description, created, userId);
 
-        item = new Item(itemId, itemName, description, true, owner, itemRequest);
+        item = new Item(itemId, itemName, description, true, owner, itemRequest, null);
     }
 
     @Test
@@ -96,7 +96,6 @@ public class ItemRequestServiceTest {
 
     @Test
     void getAllUserRequests() {
-        when(userService.getUserIfExistOrElseThrow(userId)).thenReturn(user);
         when(itemRequestRepository.findByRequesterIdOrderByCreatedDesc(userId)).thenReturn(List.of(itemRequest));
         when(itemRepository.findByRequestIdNotNull()).thenReturn(List.of(item));
 
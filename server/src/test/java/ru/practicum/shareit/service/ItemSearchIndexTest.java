@@ -0,0 +1,101 @@
+package ru.practicum.shareit.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.item.search.SearchMode;
+import ru.practicum.shareit.item.search.SearchProperties;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.*;
+
+public class ItemSearchIndexTest {
+    private final ItemRepository itemRepository = mock(ItemRepository.class);
+    private final SearchProperties searchProperties = new SearchProperties();
+    private final User owner = new User(1L, "Name", "name@mail.com");
+    private ItemSearchIndex index;
+    private Item drill;
+    private Item saw;
+
+    @BeforeEach
+    void setData() {
+        searchProperties.setMode(SearchMode.INDEX);
+        index = new ItemSearchIndex(itemRepository, searchProperties);
+        drill = new Item(1L, "Дрель", "Аккумуляторная дрель", true, owner, null, null);
+        saw = new Item(2L, "Пила", "Ручная пила по дереву", true, owner, null, null);
+        Item hidden = new Item(3L, "Дрель ударная", "Сломана", false, owner, null, null);
+        when(itemRepository.findAll()).thenReturn(List.of(saw, drill, hidden));
+        index.build();
+    }
+
+    @Test
+    void search_shouldMatchNameOrDescriptionIgnoringCase() {
+        assertEquals(List.of(1L), index.search("дРЕль"));
+        assertEquals(List.of(2L), index.search("дерев"));
+        assertEquals(List.of(1L, 2L), index.search("р"));
+        assertTrue(index.search("молоток").isEmpty());
+    }
+
+    @Test
+    void put_shouldReindexUpdatedItem() {
+        saw.setName("Дрель-пила");
+        index.put(saw);
+        drill.setAvailable(false);
+        index.put(drill);
+
+        assertEquals(List.of(2L), index.search("дрель"));
+        assertTrue(index.search("аккумулятор").isEmpty());
+    }
+
+    @Test
+    void put_rolledBack_shouldKeepIndexUnchanged() {
+        saw.setName("Дрель-пила");
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            index.put(saw);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(List.of(1L), index.search("дрель"));
+    }
+
+    @Test
+    void build_shouldKeepItemsPutWhileLoading() {
+        Item staleSaw = new Item(2L, "Пила", "Ручная пила по дереву", true, owner, null, null);
+        saw.setName("Дрель-пила");
+        when(itemRepository.findAll()).thenAnswer(invocation -> {
+            index.put(saw);
+            return List.of(staleSaw, drill);
+        });
+
+        index.build();
+
+        assertEquals(List.of(1L, 2L), index.search("дрель"));
+    }
+
+    @Test
+    void fuzzySearch_shouldTolerateTypos() {
+        assertEquals(List.of(1L), index.fuzzySearch("дрлеь аккумуляторая", 0.3));
+        assertEquals(List.of(2L), index.fuzzySearch("пилла", 0.3));
+        assertTrue(index.fuzzySearch("молоток", 0.3).isEmpty());
+    }
+
+    @Test
+    void build_shouldSkipLoadingWhenModeIsNotIndex() {
+        searchProperties.setMode(SearchMode.LIKE);
+        clearInvocations(itemRepository);
+
+        index.build();
+
+        verifyNoInteractions(itemRepository);
+    }
+}
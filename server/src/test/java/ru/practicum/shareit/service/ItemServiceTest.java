@@ -2,16 +2,26 @@ package ru.practicum.shareit.service;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
 import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.ItemOccupancyIndex;
 import ru.practicum.shareit.booking.Status;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.exception.CommentException;
 import ru.practicum.shareit.exception.ItemNotFoundException;
 import ru.practicum.shareit.exception.ItemRequestNotFoundException;
+import ru.practicum.shareit.exception.UnsupportedSearchException;
 import ru.practicum.shareit.exception.UserNotFoundException;
+import ru.practicum.shareit.exception.WrongBookingDatesException;
+import ru.practicum.shareit.exception.WrongPaginationException;
+import ru.practicum.shareit.idempotency.IdempotencyScope;
+import ru.practicum.shareit.idempotency.IdempotencyService;
 import ru.practicum.shareit.item.CommentRepository;
 import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.ItemSnapshotCache;
 import ru.practicum.shareit.request.ItemRequestRepository;
 import ru.practicum.shareit.user.UserService;
 import ru.practicum.shareit.item.dto.CommentDto;
@@ -19,16 +29,27 @@ import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemWithDateDto;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemBookingSummary;
+import ru.practicum.shareit.item.search.ItemNameSuggester;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.item.search.SearchMode;
+import ru.practicum.shareit.item.search.SearchProperties;
+import ru.practicum.shareit.item.summary.ItemBookingSummaryService;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.model.User;
 
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 public class ItemServiceTest {
@@ -37,6 +58,12 @@ public class ItemServiceTest {
     private final CommentRepository commentRepository = mock(CommentRepository.class);
     private final UserService userService = mock(UserService.class);
     private final ItemRequestRepository itemRequestRepository = mock(ItemRequestRepository.class);
+    private final SearchProperties searchProperties = new SearchProperties();
+    private final ItemSearchIndex itemSearchIndex = mock(ItemSearchIndex.class);
+    private final ItemNameSuggester itemNameSuggester = mock(ItemNameSuggester.class);
+    private final ItemBookingSummaryService itemBookingSummaryService = mock(ItemBookingSummaryService.class);
+    private final ItemOccupancyIndex itemOccupancyIndex = mock(ItemOccupancyIndex.class);
+    private final IdempotencyService idempotencyService = mock(IdempotencyService.class);
     private ItemService service;
     private final String itemName = "Item";
     private final String description = "Description";
@@ -61,7 +88,10 @@ public class ItemServiceTest {
 
     @BeforeEach
     void setData() {
-        service = new ItemService(itemRepository, bookingRepository, commentRepository, userService, itemRequestRepository);
+        service = new ItemService(itemRepository, bookingRepository, commentRepository, userService, itemRequestRepository,
+                searchProperties, itemSearchIndex, itemNameSuggester, itemBookingSummaryService,
+                itemOccupancyIndex, idempotencyService,
+                new ItemSnapshotCache(itemRepository, new ConcurrentMapCacheManager(ItemSnapshotCache.CACHE_NAME)));
 
         itemDto = new ItemDto();
         itemDto.setName(itemName);
@@ -74,7 +104,7 @@ public class ItemServiceTest {
 
         itemRequest = new ItemRequest(requestId, description, created, requester);
 
-        response = new Item(itemId, itemName, description, available, owner, itemRequest);
+        response = new Item(itemId, itemName, description, available, owner, itemRequest, null);
 
         commentDto = new CommentDto();
         Long commentId = 123L;
@@ -85,7 +115,7 @@ public class ItemServiceTest {
         comment = new Comment(commentId, text, response, requester);
 
         Long bookingId = 77L;
-        booking = new Booking(bookingId, response, requester, next, last, Status.WAITING);
+        booking = new Booking(bookingId, response, requester, next, last, Status.WAITING, null);
     }
 
     @Test
@@ -95,11 +125,27 @@ public class ItemServiceTest {
         when(itemRequestRepository.findById(requestId)).thenReturn(Optional.of(itemRequest));
         ItemDto createdItem = service.create(userId, itemDto);
 
+        verify(itemSearchIndex).put(response);
+        verify(itemNameSuggester).put(response);
+        verify(itemBookingSummaryService).create(itemId);
         assertNotNull(createdItem.getId());
         assertEquals(createdItem.getName(), itemName);
         assertEquals(createdItem.getDescription(), description);
     }
 
+    @Test
+    void create_repeatedIdempotencyKey_shouldReturnExistingItem() {
+        when(idempotencyService.findResourceId(userId, IdempotencyScope.ITEM, "key-1", itemDto))
+                .thenReturn(Optional.of(itemId));
+        when(itemRepository.findById(itemId)).thenReturn(Optional.of(response));
+
+        ItemDto createdItem = service.create(userId, itemDto, "key-1");
+
+        assertEquals(itemId, createdItem.getId());
+        verify(itemRepository, never()).save(any(Item.class));
+        verify(idempotencyService, never()).remember(anyLong(), any(), any(), any(), anyLong());
+    }
+
     @Test
     void create_requestNotExist_shouldThrowException() {
         when(userService.getUserIfExistOrElseThrow(userId)).thenReturn(owner);
@@ -143,6 +189,21 @@ public class ItemServiceTest {
         assertNull(itemById.getLastBooking());
     }
 
+    @Test
+    void getItemById_repeated_shouldUseCachedSnapshotUntilUpdate() {
+        when(itemRepository.findById(itemId)).thenReturn(Optional.of(response));
+        when(itemRepository.save(any(Item.class))).thenReturn(response);
+
+        service.getItemById(itemId);
+        service.getItemById(itemId);
+        verify(itemRepository, times(1)).findById(itemId);
+
+        service.update(itemDto, itemId, userId);
+        service.getItemById(itemId);
+
+        verify(itemRepository, times(3)).findById(itemId);
+    }
+
     @Test
     void getItemById_itemNotExist_shouldThrowException() {
         when(itemRepository.findById(itemId)).thenReturn(Optional.empty());
@@ -154,8 +215,8 @@ public class ItemServiceTest {
     @Test
     void getAllItems() {
         when(userService.getUserIfExistOrElseThrow(userId)).thenReturn(owner);
-        when(bookingRepository.findAllByItemOwnerIdAndStartAfterOrderByStartDesc(anyLong(), any(LocalDateTime.class)))
-                .thenReturn(List.of(booking));
+        when(itemBookingSummaryService.getSummaries(List.of(itemId)))
+                .thenReturn(Map.of(itemId, new ItemBookingSummary(itemId, next, last, 1, 1)));
         when(itemRepository.findByOwner(owner)).thenReturn(List.of(response));
         when(commentRepository.findByItemIn(List.of(response))).thenReturn(List.of(comment));
 
@@ -171,10 +232,10 @@ public class ItemServiceTest {
 
     @Test
     void getItemsBySearch() {
-        when(itemRepository.findByAvailableTrueAndNameIgnoreCaseContainingOrDescriptionIgnoreCaseContaining(text, text))
-                .thenReturn(List.of(response));
+        when(itemRepository.findAvailableBySearch("%text%", 0L, null, null, OffsetPageRequest.of(0, 20)))
+                .thenReturn(new SliceImpl<>(List.of(response)));
 
-        List<ItemDto> itemsBySearch = service.getItemsBySearch(text);
+        List<ItemDto> itemsBySearch = service.getItemsBySearch(text, 0, 20, null, null, null);
 
         assertNotNull(itemsBySearch);
         assertEquals(itemsBySearch.getFirst().getName(), itemName);
@@ -182,11 +243,137 @@ public class ItemServiceTest {
         assertEquals(itemsBySearch.getFirst().getAvailable(), available);
     }
 
+    @Test
+    void getItemsBySearch_afterCursor_shouldUseKeysetAndCapPageSize() {
+        when(itemRepository.findAvailableBySearch("%50\\%\\_off%", 10L, null, null, OffsetPageRequest.of(0, 100)))
+                .thenReturn(new SliceImpl<>(List.of(response)));
+
+        List<ItemDto> itemsBySearch = service.getItemsBySearch("50%_OFF", 40, 1000, 10L, null, null);
+
+        assertEquals(1, itemsBySearch.size());
+    }
+
+    @Test
+    void getItemsBySearch_fullText() {
+        searchProperties.setMode(SearchMode.FULL_TEXT);
+        when(itemRepository.findAvailableByFullText("дрель:* & bosch:*", null, null, OffsetPageRequest.of(10, 10)))
+                .thenReturn(new SliceImpl<>(List.of(response)));
+
+        List<ItemDto> itemsBySearch = service.getItemsBySearch("Дрель, BOSCH!", 10, 10, null, null, null);
+
+        assertEquals(itemsBySearch.getFirst().getName(), itemName);
+        verify(itemRepository, never()).findAvailableBySearch(anyString(), anyLong(), any(), any(), any(Pageable.class));
+    }
+
+    @Test
+    void getItemsBySearch_fullTextWithoutWords_shouldReturnEmptyList() {
+        searchProperties.setMode(SearchMode.FULL_TEXT);
+
+        List<ItemDto> itemsBySearch = service.getItemsBySearch("!?", 0, 20, null, null, null);
+
+        assertTrue(itemsBySearch.isEmpty());
+        verifyNoInteractions(itemRepository);
+    }
+
+    @Test
+    void getItemsBySearch_index() {
+        searchProperties.setMode(SearchMode.INDEX);
+        Item unavailable = new Item(5L, itemName, description, false, owner, null, null);
+        when(itemSearchIndex.search(text)).thenReturn(List.of(1L, 5L, itemId, 9L));
+        when(itemRepository.findAllById(List.of(5L, itemId))).thenReturn(List.of(response, unavailable));
+
+        List<ItemDto> itemsBySearch = service.getItemsBySearch(text, 0, 2, 1L, null, null);
+
+        assertEquals(1, itemsBySearch.size());
+        assertEquals(itemId, itemsBySearch.getFirst().getId());
+        verifyNoInteractions(bookingRepository);
+    }
+
+    @Test
+    void getItemsBySearch_indexWithWindow_shouldSkipBookedItems() {
+        searchProperties.setMode(SearchMode.INDEX);
+        when(itemSearchIndex.search(text)).thenReturn(List.of(1L, itemId));
+        when(bookingRepository.findItemIdsBookedBetween(anyCollection(), eq(next), eq(last))).thenReturn(Set.of(1L));
+        when(itemRepository.findAllById(List.of(itemId))).thenReturn(List.of(response));
+
+        List<ItemDto> itemsBySearch = service.getItemsBySearch(text, 0, 20, null, next, last);
+
+        assertEquals(List.of(itemId), itemsBySearch.stream().map(ItemDto::getId).toList());
+    }
+
+    @Test
+    void getItemsByFuzzySearch_index_shouldSkipBookedItems() {
+        searchProperties.setMode(SearchMode.INDEX);
+        Item drill = new Item(7L, "Дрель", "Аккумуляторная дрель", true, owner, null, null);
+        when(itemSearchIndex.fuzzySearch("дрел", 0.3)).thenReturn(List.of(7L, 9L));
+        when(bookingRepository.findItemIdsBookedBetween(anyCollection(), eq(next), eq(last))).thenReturn(Set.of(9L));
+        when(itemRepository.findAllById(List.of(7L))).thenReturn(List.of(drill));
+
+        List<ItemDto> itemsBySearch = service.getItemsByFuzzySearch("дрел", 0, 20, null, next, last);
+
+        assertEquals(List.of(drill.getId()), itemsBySearch.stream().map(ItemDto::getId).toList());
+    }
+
+    @Test
+    void getItemsByFuzzySearch_withoutIndex_shouldThrowException() {
+        assertThrows(UnsupportedSearchException.class,
+                () -> service.getItemsByFuzzySearch("дрел", 0, 20, null, null, null));
+        verifyNoInteractions(itemRepository);
+    }
+
+    @Test
+    void getItemsBySearch_offsetNotMultipleOfSize_shouldStartAtExactOffset() {
+        searchProperties.setMode(SearchMode.FULL_TEXT);
+        when(itemRepository.findAvailableByFullText("text:*", null, null, OffsetPageRequest.of(15, 10)))
+                .thenReturn(new SliceImpl<>(List.of(response)));
+
+        List<ItemDto> itemsBySearch = service.getItemsBySearch(text, 15, 10, null, null, null);
+
+        assertEquals(1, itemsBySearch.size());
+    }
+
+    @Test
+    void getItemsBySearch_zeroSize_shouldThrowException() {
+        assertThrows(WrongPaginationException.class, () -> service.getItemsBySearch(text, 0, 0, null, null, null));
+        assertThrows(WrongPaginationException.class, () -> service.getItemsByFuzzySearch(text, -1, 10, null, null, null));
+    }
+
+    @Test
+    void rankedSearch_afterCursor_shouldThrowException() {
+        searchProperties.setMode(SearchMode.FULL_TEXT);
+
+        assertThrows(WrongPaginationException.class, () -> service.getItemsBySearch(text, 0, 20, 5L, null, null));
+        assertThrows(WrongPaginationException.class,
+                () -> service.getItemsByFuzzySearch(text, 0, 20, 5L, null, null));
+        verifyNoInteractions(itemRepository);
+    }
+
+    @Test
+    void getItemsBySearch_invalidWindow_shouldThrowException() {
+        assertThrows(WrongBookingDatesException.class, () -> service.getItemsBySearch(text, 0, 20, null, last, next));
+        assertThrows(WrongBookingDatesException.class, () -> service.getItemsByFuzzySearch(text, 0, 20, null, next, null));
+        verifyNoInteractions(bookingRepository);
+    }
+
+    @Test
+    void getItemsByFuzzySearch_trigramIndex() {
+        searchProperties.setTrigramIndex(true);
+        when(itemRepository.findAvailableBySimilarity(text, 0.3, null, null, OffsetPageRequest.of(0, 20)))
+                .thenReturn(new SliceImpl<>(List.of(response)));
+
+        List<ItemDto> itemsBySearch = service.getItemsByFuzzySearch(text, 0, 20, null, null, null);
+
+        assertEquals(itemName, itemsBySearch.getFirst().getName());
+        verify(itemRepository, never()).findByAvailableTrue();
+        verify(itemRepository).setWordSimilarityThreshold(0.3);
+    }
+
     @Test
     void createComment() {
         when(userService.getUserIfExistOrElseThrow(requesterId)).thenReturn(requester);
         when(itemRepository.findById(itemId)).thenReturn(Optional.of(response));
-        when(bookingRepository.findAllByItemIdAndBookerIdAndEndBefore(anyLong(), anyLong(), any(LocalDateTime.class)))
+        when(bookingRepository.findAllByItemIdAndBookerIdAndStartBeforeAndEndBefore(anyLong(), anyLong(), any(LocalDateTime.class),
+                any(LocalDateTime.class)))
                 .thenReturn(List.of(booking));
         when(commentRepository.save(any(Comment.class))).thenReturn(comment);
 
@@ -195,17 +382,20 @@ public class ItemServiceTest {
         assertNotNull(createdComment.getId());
         assertEquals(createdComment.getText(), text);
         assertEquals(createdComment.getAuthorName(), requester.getName());
+        verify(itemBookingSummaryService).recordComment(itemId);
     }
 
     @Test
     void createComment_userNotBooking_shouldThrowException() {
         when(userService.getUserIfExistOrElseThrow(requesterId)).thenReturn(requester);
         when(itemRepository.findById(itemId)).thenReturn(Optional.of(response));
-        when(bookingRepository.findAllByItemIdAndBookerIdAndEndBefore(anyLong(), anyLong(), any(LocalDateTime.class)))
+        when(bookingRepository.findAllByItemIdAndBookerIdAndStartBeforeAndEndBefore(anyLong(), anyLong(), any(LocalDateTime.class),
+                any(LocalDateTime.class)))
                 .thenReturn(List.of());
 
 
         assertThrows(CommentException.class, () -> service.createComment(userId, itemId, commentDto));
-        verify(bookingRepository).findAllByItemIdAndBookerIdAndEndBefore(anyLong(), anyLong(), any(LocalDateTime.class));
+        verify(bookingRepository).findAllByItemIdAndBookerIdAndStartBeforeAndEndBefore(anyLong(), anyLong(), any(LocalDateTime.class),
+                any(LocalDateTime.class));
     }
 }
@@ -0,0 +1,136 @@
+package ru.practicum.shareit.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.dto.BookingEventDto;
+import ru.practicum.shareit.booking.outbox.BookingEventType;
+import ru.practicum.shareit.booking.outbox.InMemoryOutboxSink;
+import ru.practicum.shareit.booking.outbox.OutboxEvent;
+import ru.practicum.shareit.booking.outbox.OutboxProperties;
+import ru.practicum.shareit.booking.outbox.OutboxRelay;
+import ru.practicum.shareit.booking.outbox.OutboxRepository;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doCallRealMethod;
+import static org.mockito.Mockito.doThrow;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class OutboxRelayTest {
+    private final BookingService bookingService;
+    private final OutboxRelay outboxRelay;
+    private final OutboxRepository outboxRepository;
+    private final BookingRepository bookingRepository;
+    private final ItemRepository itemRepository;
+    private final UserRepository userRepository;
+    private final MeterRegistry meterRegistry;
+    private final ObjectMapper objectMapper;
+    private final OutboxProperties outboxProperties;
+    private final TransactionTemplate transactionTemplate;
+    private final LocalDateTime start = LocalDateTime.now().plusDays(1);
+    @SpyBean
+    private InMemoryOutboxSink sink;
+    private User owner;
+    private User booker;
+    private Item item;
+
+    @BeforeEach
+    void setData() {
+        owner = userRepository.save(new User(null, "Owner", "owner@mail.com"));
+        booker = userRepository.save(new User(null, "Booker", "booker@mail.com"));
+        item = itemRepository.save(new Item(null, "Item", "Description", true, owner, null, null));
+        sink.drain();
+    }
+
+    @Test
+    @SneakyThrows
+    void relay_shouldDeliverLifecycleEventsAndClearOutbox() {
+        Long bookingId = bookingService.create(booker.getId(), createDto()).getId();
+        bookingService.approveByOwner(owner.getId(), bookingId, true);
+
+        assertThat(outboxRepository.count()).isEqualTo(2);
+        outboxRelay.relay();
+
+        List<OutboxEvent> events = sink.drain();
+        assertThat(events).extracting(OutboxEvent::getType)
+                .containsExactly(BookingEventType.CREATED, BookingEventType.APPROVED);
+        BookingEventDto approved = objectMapper.readValue(events.get(1).getPayload(), BookingEventDto.class);
+        assertThat(approved.getBookingId()).isEqualTo(bookingId);
+        assertThat(approved.getItemId()).isEqualTo(item.getId());
+        assertThat(approved.getStatus()).isEqualTo(Status.APPROVED);
+        assertThat(outboxRepository.count()).isZero();
+        assertThat(meterRegistry.get("shareit.outbox.lag").gauge().value()).isZero();
+    }
+
+    @Test
+    void relay_handlerFails_shouldKeepEventForRetry() {
+        doThrow(new IllegalStateException("Очередь событий заполнена")).when(sink).handle(any(OutboxEvent.class));
+        bookingService.create(booker.getId(), createDto());
+
+        outboxRelay.relay();
+
+        OutboxEvent pending = outboxRepository.findAll().getFirst();
+        assertThat(pending.getAttempts()).isEqualTo(1);
+        assertThat(pending.getAvailableAt()).isAfter(pending.getCreatedAt());
+        assertThat(meterRegistry.get("shareit.outbox.lag").gauge().value()).isPositive();
+
+        doCallRealMethod().when(sink).handle(any(OutboxEvent.class));
+        pending.setAvailableAt(pending.getCreatedAt());
+        outboxRepository.save(pending);
+        outboxRelay.relay();
+
+        assertThat(sink.drain()).hasSize(1);
+        assertThat(outboxRepository.count()).isZero();
+    }
+
+    @Test
+    void relay_withoutHandlers_shouldKeepEvents() {
+        OutboxRelay withoutHandlers = new OutboxRelay(outboxRepository, List.of(), outboxProperties,
+                transactionTemplate, new SimpleMeterRegistry());
+        bookingService.create(booker.getId(), createDto());
+
+        withoutHandlers.relay();
+
+        OutboxEvent pending = outboxRepository.findAll().getFirst();
+        assertThat(pending.getAttempts()).isZero();
+        assertThat(sink.drain()).isEmpty();
+    }
+
+    @AfterEach
+    void tearDown() {
+        outboxRepository.deleteAll();
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    private BookingCreateDto createDto() {
+        BookingCreateDto dto = new BookingCreateDto();
+        dto.setItemId(item.getId());
+        dto.setStart(start);
+        dto.setEnd(start.plusHours(2));
+        return dto;
+    }
+}
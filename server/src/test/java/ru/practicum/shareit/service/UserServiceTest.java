@@ -1,10 +1,17 @@
 package ru.practicum.shareit.service;
 
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.dao.DataIntegrityViolationException;
 import ru.practicum.shareit.exception.UserNotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.ItemSnapshotCache;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.UserExistenceCache;
+import ru.practicum.shareit.user.UserExistenceProperties;
 import ru.practicum.shareit.user.UserRepository;
 import ru.practicum.shareit.user.UserService;
 import ru.practicum.shareit.user.dto.UserDto;
@@ -15,10 +22,14 @@ import java.util.Optional;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
 public class UserServiceTest {
     private final UserRepository userRepository = mock(UserRepository.class);
+    private final ItemSnapshotCache itemSnapshotCache = mock(ItemSnapshotCache.class);
+    private final EntityManagerFactory entityManagerFactory = mock(EntityManagerFactory.class);
+    private final SessionFactory sessionFactory = mock(SessionFactory.class, RETURNS_DEEP_STUBS);
     private UserService service;
     private UserDto userDto;
     private User responseUser;
@@ -28,7 +39,10 @@ public class UserServiceTest {
 
     @BeforeEach
     void setData() {
-        service = new UserService(userRepository);
+        service = new UserService(userRepository,
+                new UserExistenceCache(userRepository, new UserExistenceProperties()), itemSnapshotCache,
+                entityManagerFactory);
+        when(entityManagerFactory.unwrap(SessionFactory.class)).thenReturn(sessionFactory);
 
         userDto = new UserDto();
         userDto.setName(name);
@@ -106,5 +120,40 @@ public class UserServiceTest {
         UserDto deletedUser = service.delete(id);
 
         assertEquals(deletedUser.getId(), id);
+        verify(itemSnapshotCache).evictOwnedBy(id);
+        verify(sessionFactory.getCache()).evictEntityData(Item.class);
+        verify(sessionFactory.getCache()).evictEntityData(ItemRequest.class);
+    }
+
+    @Test
+    void checkUserExists_createdUser_shouldNotQueryRepository() {
+        when(userRepository.save(any(User.class))).thenReturn(responseUser);
+        service.create(userDto);
+
+        service.checkUserExists(id);
+
+        verify(userRepository, never()).existsById(anyLong());
+    }
+
+    @Test
+    void checkUserExists_unknownUser_shouldCacheAbsence() {
+        when(userRepository.existsById(id)).thenReturn(false);
+
+        assertThrows(UserNotFoundException.class, () -> service.checkUserExists(id));
+        assertThrows(UserNotFoundException.class, () -> service.checkUserExists(id));
+
+        verify(userRepository, times(1)).existsById(id);
+    }
+
+    @Test
+    void checkUserExists_deletedUser_shouldThrowException() {
+        when(userRepository.existsById(id)).thenReturn(true);
+        when(userRepository.findById(id)).thenReturn(Optional.of(responseUser));
+        service.checkUserExists(id);
+
+        service.delete(id);
+
+        assertThrows(UserNotFoundException.class, () -> service.checkUserExists(id));
+        verify(userRepository, times(1)).existsById(id);
     }
 }